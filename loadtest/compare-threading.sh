@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Autor: Francisco Velasco (Legajo 51141)
+# Compara hilos de plataforma contra hilos virtuales con la misma carga de k6.
+# Requiere JDK 21 y k6 en el PATH. Uso: ./loadtest/compare-threading.sh [VUS] [DURATION]
+set -euo pipefail
+
+VUS="${1:-400}"
+DURATION="${2:-60s}"
+PORT=8080
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$ROOT/build/libs/APIDeployExample-1.0-SNAPSHOT.jar"
+
+(cd "$ROOT" && ./gradlew bootJar -PjavaVersion=21 --no-daemon -q)
+
+run_mode() {
+  local label="$1"; shift
+  java --add-modules jdk.incubator.vector -jar "$JAR" --server.port="$PORT" "$@" > "$ROOT/build/loadtest-$label.log" 2>&1 &
+  local pid=$!
+  until curl -sf "http://localhost:$PORT/stats" > /dev/null; do sleep 1; done
+  echo "== $label: $VUS usuarios durante $DURATION"
+  k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+    --summary-export "$ROOT/build/loadtest-$label.json" "$ROOT/loadtest/mutant-post.js"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+}
+
+run_mode platform
+run_mode virtual --spring.profiles.active=virtual
+echo "Resúmenes en build/loadtest-platform.json y build/loadtest-virtual.json"
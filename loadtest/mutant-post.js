@@ -0,0 +1,33 @@
+// Autor: Francisco Velasco (Legajo 51141)
+// Carga sobre POST /mutant/ con genomas aleatorios, para que cada request llegue a la base y no a la caché.
+// Uso: k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 -e DURATION=60s loadtest/mutant-post.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASES = ['A', 'C', 'G', 'T'];
+const SIZE = Number(__ENV.SIZE || 6);
+
+export const options = {
+    vus: Number(__ENV.VUS || 200),
+    duration: __ENV.DURATION || '60s',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function randomGenome() {
+    const rows = [];
+    for (let r = 0; r < SIZE; r++) {
+        let row = '';
+        for (let c = 0; c < SIZE; c++) {
+            row += BASES[Math.floor(Math.random() * 4)];
+        }
+        rows.push(row);
+    }
+    return rows;
+}
+
+export default function () {
+    const response = http.post(`${__ENV.BASE_URL || 'http://localhost:8080'}/mutant/`,
+        JSON.stringify({ dna: randomGenome() }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(response, { 'veredicto': (r) => r.status === 200 || r.status === 403 });
+}
@@ -0,0 +1,55 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.detection.PackedScanDetector;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SkipScanDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.TiledSweepDetector;
+import com.franciscovelasco.mutantdetector.detection.VectorSupport;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Estado compartido por los benchmarks: tamaño, disposición y posición de salida temprana.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@State(Scope.Benchmark)
+public class BenchmarkGenomes {
+
+    @Param({"4", "6", "32", "256", "2048"})
+    public int size;
+
+    @Param({"MUTANT", "HUMAN", "WORST"})
+    public GenomeLayout layout;
+
+    // Fila relativa donde se completa la segunda secuencia; HUMAN y WORST la ignoran.
+    @Param({"0.0", "0.5", "1.0"})
+    public double exitAt;
+
+    public List<String> rows;
+    public PackedGenome genome;
+
+    @Setup
+    public void prepare() {
+        rows = layout.rows(size, exitAt);
+        genome = PackedGenome.encode(rows);
+    }
+
+    static SequenceDetector detector(String engine) {
+        return switch (engine) {
+            case "scalar" -> new PackedScanDetector();
+            case "swar" -> new SwarSequenceDetector();
+            case "skip-scan" -> new SkipScanDetector();
+            case "tiled" -> new TiledSweepDetector();
+            case "vector" -> VectorSupport.createDetector()
+                    .orElseThrow(() -> new IllegalStateException("Falta --add-modules jdk.incubator.vector"));
+            default -> throw new IllegalArgumentException("Motor desconocido: " + engine);
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detección pura sobre una matriz ya empaquetada, para comparar motores sin validación ni hash.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DetectorBenchmark {
+
+    @Param({"scalar", "swar", "vector", "skip-scan", "tiled"})
+    public String engine;
+
+    private SequenceDetector detector;
+
+    @Setup
+    public void prepare() {
+        detector = BenchmarkGenomes.detector(engine);
+    }
+
+    @Benchmark
+    public boolean detectMutations(BenchmarkGenomes genomes) {
+        return detector.detect(genomes.genome);
+    }
+}
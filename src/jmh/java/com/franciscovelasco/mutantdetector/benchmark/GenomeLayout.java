@@ -0,0 +1,61 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matrices deterministas para los benchmarks, construidas sobre fórmulas en lugar de azar
+ * para que cada corrida mida exactamente el mismo trabajo.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public enum GenomeLayout {
+
+    /**
+     * Dos secuencias horizontales a la altura indicada por {@code exitAt}; el resto no tiene rachas.
+     */
+    MUTANT,
+    /**
+     * Ninguna base vecina repetida en ninguna dirección: obliga a recorrer toda la matriz.
+     */
+    HUMAN,
+    /**
+     * Rachas de tres en todas las filas: recorrido completo con la mayor actividad de contadores sin llegar a cuatro.
+     */
+    WORST;
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /**
+     * @param size   dimensión N de la matriz
+     * @param exitAt fracción 0..1 de la fila donde se completan las secuencias (solo para MUTANT)
+     * @return filas listas para enviar a la API
+     */
+    public List<String> rows(int size, double exitAt) {
+        char[][] matrix = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                // (r + 2c) mod 4 cambia de base hacia cualquier vecino; con c / 3 las filas repiten de a tres.
+                int shift = this == WORST ? 2 * (col / 3) : 2 * col;
+                matrix[row][col] = BASES[(row + shift) % BASES.length];
+            }
+        }
+        if (this == MUTANT) {
+            int exitRow = (int) Math.round(exitAt * (size - 1));
+            int neighbour = exitRow == 0 ? 1 : exitRow - 1;
+            fillRun(matrix[neighbour], 'A');
+            fillRun(matrix[exitRow], 'C');
+        }
+        List<String> rows = new ArrayList<>(size);
+        for (char[] row : matrix) {
+            rows.add(new String(row));
+        }
+        return rows;
+    }
+
+    private static void fillRun(char[] row, char base) {
+        for (int col = 0; col < 4; col++) {
+            row[col] = base;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import com.franciscovelasco.mutantdetector.detection.PackedScanDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.fingerprint.CanonicalFingerprinter;
+import com.franciscovelasco.mutantdetector.fingerprint.FingerprintAlgorithm;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprinter;
+import com.franciscovelasco.mutantdetector.service.GenomeScanner;
+import com.franciscovelasco.mutantdetector.service.ScannedGenome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Etapas de ingesta: huella sobre el buffer empaquetado y la pasada única de normalización,
+ * validación NxN y empaquetado (con y sin detección fusionada).
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IngestBenchmark {
+
+    @Param({"murmur3", "sha256"})
+    public String algorithm;
+
+    // Con true la huella se calcula sobre la menor de las 8 simetrías de la matriz.
+    @Param({"false", "true"})
+    public boolean canonical;
+
+    private GenomeFingerprinter fingerprinter;
+    private GenomeScanner validatingScanner;
+    private GenomeScanner fusedScanner;
+
+    @Setup
+    public void prepare() {
+        fingerprinter = FingerprintAlgorithm.from(algorithm).create();
+        if (canonical) {
+            fingerprinter = new CanonicalFingerprinter(fingerprinter);
+        }
+        // El detector escalar no abre flujo incremental, así que el scanner solo normaliza, valida y empaqueta.
+        validatingScanner = new GenomeScanner(new PackedScanDetector(), fingerprinter);
+        fusedScanner = new GenomeScanner(new SwarSequenceDetector(), fingerprinter);
+    }
+
+    @Benchmark
+    public GenomeFingerprint hashGenome(BenchmarkGenomes genomes) {
+        return fingerprinter.fingerprint(genomes.genome);
+    }
+
+    /**
+     * Equivale a las antiguas etapas normalize + enforceSquareMatrix, más el empaquetado y la huella.
+     */
+    @Benchmark
+    public ScannedGenome normalizeAndValidate(BenchmarkGenomes genomes) {
+        return validatingScanner.scan(genomes.rows);
+    }
+
+    @Benchmark
+    public ScannedGenome scanWithFusedDetection(BenchmarkGenomes genomes) {
+        return fusedScanner.scan(genomes.rows);
+    }
+}
@@ -0,0 +1,95 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.fingerprint.Murmur3Fingerprinter;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import com.franciscovelasco.mutantdetector.service.DnaAnalyzerService;
+import com.franciscovelasco.mutantdetector.service.GenomeScanner;
+import com.franciscovelasco.mutantdetector.service.VerdictFlights;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido completo de {@link DnaAnalyzerService#inspectGenome} con un registro en memoria que no persiste nada.
+ * La caché se vacía en cada llamada para medir siempre el camino de un genoma nuevo.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InspectGenomeBenchmark {
+
+    @Param({"swar"})
+    public String engine;
+
+    private DnaAnalyzerService analyzer;
+    private VerdictCache verdictCache;
+
+    @Setup
+    public void prepare() {
+        SequenceDetector detector = BenchmarkGenomes.detector(engine);
+        MutantRegistry registry = stubRegistry();
+        verdictCache = new VerdictCache(16, Duration.ofMinutes(5));
+        // Escritura síncrona contra el stub: sin hilo de fondo que meta ruido en la medición.
+        AuditWriteBehind writer = new AuditWriteBehind(registry, new VerdictCounters(registry),
+                new VerdictTimeline(registry, 60, 24, 7), Thread::new,
+                false, 1, 1, 0);
+        // Filtro deshabilitado: el mismo genoma se repite y con el filtro armado dejaría de contar como nuevo.
+        analyzer = new DnaAnalyzerService(registry, detector,
+                new GenomeScanner(detector, new Murmur3Fingerprinter()), verdictCache,
+                new GenomeBloomFilter(registry, false, 1, 0.01), writer,
+                new AnalysisMetrics(new SimpleMeterRegistry()), new VerdictFlights());
+    }
+
+    @Benchmark
+    public boolean inspectGenome(BenchmarkGenomes genomes) {
+        verdictCache.invalidateAll();
+        return analyzer.inspectGenome(genomes.rows);
+    }
+
+    // Responde "no existe" a toda búsqueda y acepta cualquier guardado sin tocar una base.
+    private static MutantRegistry stubRegistry() {
+        return (MutantRegistry) Proxy.newProxyInstance(MutantRegistry.class.getClassLoader(),
+                new Class<?>[]{MutantRegistry.class}, (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (type == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (type == long.class) {
+                        return 0L;
+                    }
+                    if (method.getName().startsWith("save")) {
+                        return args[0];
+                    }
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    if (type == int.class) {
+                        return 0;
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return null;
+                });
+    }
+}
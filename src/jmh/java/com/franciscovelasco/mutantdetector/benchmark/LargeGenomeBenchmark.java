@@ -0,0 +1,62 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import com.franciscovelasco.mutantdetector.config.DetectionConfig;
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.TiledSweepDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido completo de genomas humanos grandes, donde columnas y diagonales dejan de entrar en caché.
+ * Tiene sus propios tamaños para no arrastrar matrices de millones de bases al resto de los benchmarks;
+ * con {@code -PjmhProfilers=gc,perfnorm} se ven los fallos de L1 y LLC por operación de cada motor.
+ * El detector sale de {@link DetectionConfig} con la configuración por defecto, así que se mide lo que corre en
+ * producción: el escalar repartido por bandas en paralelo y SWAR y tiled solos.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LargeGenomeBenchmark {
+
+    @Param({"512", "1024", "2048", "4096", "8192"})
+    public int size;
+
+    @Param({"scalar", "swar", "tiled"})
+    public String engine;
+
+    private ForkJoinPool pool;
+    private SequenceDetector detector;
+    private PackedGenome genome;
+
+    @Setup
+    public void prepare() {
+        DetectionConfig detectionConfig = new DetectionConfig();
+        pool = detectionConfig.detectionPool(0);
+        detector = detectionConfig.sequenceDetector(engine, 1024, 256,
+                TiledSweepDetector.DEFAULT_TILE_ROWS, TiledSweepDetector.DEFAULT_TILE_COLUMNS, pool);
+        genome = PackedGenome.encode(GenomeLayout.HUMAN.rows(size, 0));
+    }
+
+    @TearDown
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public boolean detectHuman() {
+        return detector.detect(genome);
+    }
+}
@@ -0,0 +1,115 @@
+package com.franciscovelasco.mutantdetector.benchmark;
+
+import com.franciscovelasco.mutantdetector.GenomeSentinelApplication;
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput del {@link MutantRegistry} real de cada modo de persistencia, con la aplicación levantada sin web:
+ * búsqueda de veredictos existentes y ausentes, e inserción de genomas nuevos.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RegistryBenchmark {
+
+    private static final List<String> ROWS = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+    // mem: H2 en memoria (por defecto); h2file y mmap: el perfil homónimo sobre un directorio temporal.
+    @Param({"mem", "h2file", "mmap"})
+    public String backend;
+
+    @Param({"100000"})
+    public int preloaded;
+
+    private ConfigurableApplicationContext context;
+    private MutantRegistry registry;
+    private PackedGenome snapshot;
+    private long nextKnown;
+    private long nextMissing;
+    private long nextInsert;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(GenomeSentinelApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("genome.data-dir=" + Files.createTempDirectory("genome-registry"));
+        if (!backend.equals("mem")) {
+            builder.profiles(backend);
+        }
+        context = builder.run();
+        registry = context.getBean(MutantRegistry.class);
+        snapshot = PackedGenome.encode(ROWS);
+        List<MutantEntity> batch = new ArrayList<>();
+        for (long seed = 0; seed < preloaded; seed++) {
+            batch.add(entity(seed));
+            if (batch.size() == 1000) {
+                registry.saveAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        registry.saveAll(batch);
+        nextInsert = preloaded;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Boolean> lookupKnown() {
+        nextKnown = (nextKnown + 7919) % preloaded;
+        return registry.findVerdictByGenomeHash(fingerprint(nextKnown));
+    }
+
+    @Benchmark
+    public Optional<Boolean> lookupMissing() {
+        return registry.findVerdictByGenomeHash(fingerprint(-1 - nextMissing++));
+    }
+
+    @Benchmark
+    public MutantEntity insert() {
+        return registry.save(entity(nextInsert++));
+    }
+
+    private MutantEntity entity(long seed) {
+        return MutantEntity.builder()
+                .genomeHash(fingerprint(seed))
+                .matrixSnapshot(snapshot)
+                .mutant((seed & 1) == 0)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static GenomeFingerprint fingerprint(long seed) {
+        // Mezcla el id para que las huellas no lleguen ordenadas al índice, como las de Murmur3.
+        long mixed = seed * 0x9E3779B97F4A7C15L;
+        return new GenomeFingerprint(mixed, Long.rotateLeft(mixed, 31) ^ seed);
+    }
+}
@@ -0,0 +1,148 @@
+package com.franciscovelasco.mutantdetector.cache;
+
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom sobre las huellas registradas: si responde "ausente" el genoma es nuevo con certeza y la búsqueda
+ * en el registro se puede saltear. Se arma al arrancar recorriendo las huellas y se completa con cada genoma aceptado.
+ * Las huellas ya son uniformes, así que sus dos mitades alimentan el doble hashing {@code h1 + i * h2} sin rehashear.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Component
+public class GenomeBloomFilter {
+
+    // 2^30 longs (8 GiB): la mayor potencia de dos por debajo del largo máximo de un arreglo, que ronda 2^31 - 8.
+    static final long MAX_BITS = 1L << 36;
+    private static final int MAX_HASHES = 16;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final MutantRegistry mutantRegistry;
+    private final boolean enabled;
+    private final long[] words;
+    private final long mask;
+    private final int hashes;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions genomas distintos previstos; pasado ese número la tasa de falsos positivos sube
+     * @param falsePositiveRate  tasa objetivo de "puede estar" para genomas que en realidad no están
+     */
+    public GenomeBloomFilter(MutantRegistry mutantRegistry,
+                             @Value("${genome.bloom.enabled:true}") boolean enabled,
+                             @Value("${genome.bloom.expected-insertions:1000000}") long expectedInsertions,
+                             @Value("${genome.bloom.fpp:0.01}") double falsePositiveRate) {
+        this.mutantRegistry = mutantRegistry;
+        this.enabled = enabled;
+        long bits = bitsFor(expectedInsertions, falsePositiveRate);
+        this.words = new long[enabled ? (int) (bits >>> 6) : 0];
+        this.mask = bits - 1;
+        // k = m / n ln 2 con el m ya redondeado.
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES,
+                Math.round((double) bits / Math.max(1, expectedInsertions) * Math.log(2))));
+    }
+
+    /**
+     * m = -n ln p / (ln 2)^2, redondeado a potencia de dos para indexar con una máscara y acotado a {@link #MAX_BITS}.
+     * El tope se aplica antes de redondear para que una configuración desmedida no desborde el long.
+     */
+    static long bitsFor(long expectedInsertions, double falsePositiveRate) {
+        double optimal = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long target = (long) Math.ceil(Math.min(optimal, MAX_BITS));
+        return Math.min(MAX_BITS, Math.max(Long.SIZE, Long.highestOneBit(target * 2 - 1)));
+    }
+
+    @PostConstruct
+    void build() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        mutantRegistry.forEachGenomeHash(this::put);
+        log.info("Filtro de Bloom armado con {} huellas ({} KiB, {} funciones) en {} ms", insertions.sum(),
+                (long) words.length * Long.BYTES / 1024, hashes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return false solo si la huella nunca se agregó; con el filtro deshabilitado siempre true
+     */
+    public boolean mightContain(GenomeFingerprint genomeHash) {
+        if (!enabled) {
+            return true;
+        }
+        long bit = genomeHash.high();
+        long step = genomeHash.low() | 1;
+        for (int hash = 0; hash < hashes; hash++) {
+            long word = (long) WORDS.getAcquire(words, (int) ((bit & mask) >>> 6));
+            if ((word & (1L << bit)) == 0) {
+                return false;
+            }
+            bit += step;
+        }
+        return true;
+    }
+
+    /**
+     * Registra la huella antes de que la fila sea visible en el registro, para no dar nunca un falso "ausente".
+     */
+    public void put(GenomeFingerprint genomeHash) {
+        if (!enabled) {
+            return;
+        }
+        long bit = genomeHash.high();
+        long step = genomeHash.low() | 1;
+        boolean changed = false;
+        for (int hash = 0; hash < hashes; hash++) {
+            int index = (int) ((bit & mask) >>> 6);
+            long flag = 1L << bit;
+            if (((long) WORDS.getAcquire(words, index) & flag) == 0) {
+                WORDS.getAndBitwiseOr(words, index, flag);
+                changed = true;
+            }
+            bit += step;
+        }
+        if (changed) {
+            insertions.increment();
+        }
+    }
+
+    /**
+     * Tasa de falsos positivos estimada con las huellas agregadas hasta ahora: (1 - e^(-k n / m))^k.
+     */
+    public double expectedFalsePositiveRate() {
+        if (!enabled) {
+            return 1.0;
+        }
+        return Math.pow(1 - Math.exp(-hashes * (double) insertions.sum() / (mask + 1)), hashes);
+    }
+
+    /**
+     * Publica las huellas agregadas y la tasa de falsos positivos estimada ({@code genome.bloom.*}).
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("genome.bloom.insertions", insertions, LongAdder::sum)
+                .description("Huellas distintas agregadas al filtro de Bloom")
+                .register(registry);
+        Gauge.builder("genome.bloom.expected.fpp", this, GenomeBloomFilter::expectedFalsePositiveRate)
+                .description("Tasa de falsos positivos estimada del filtro de Bloom")
+                .register(registry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.franciscovelasco.mutantdetector.cache;
+
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Caché en memoria de veredictos por huella de genoma, acotada por tamaño y con expiración.
+ * Los clientes reintentan mucho el mismo ADN, así que un acierto acá evita abrir la base de datos.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Component
+public class VerdictCache {
+
+    private final Cache<GenomeFingerprint, Boolean> verdicts;
+
+    public VerdictCache(@Value("${genome.cache.max-size:100000}") long maxSize,
+                        @Value("${genome.cache.ttl:PT30M}") Duration ttl) {
+        this.verdicts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param genomeHash huella del genoma normalizado
+     * @return el veredicto cacheado, o null si no está (evita envolver cada consulta en un Optional)
+     */
+    public Boolean find(GenomeFingerprint genomeHash) {
+        return verdicts.getIfPresent(genomeHash);
+    }
+
+    public void remember(GenomeFingerprint genomeHash, boolean mutant) {
+        verdicts.put(genomeHash, mutant);
+    }
+
+    public void invalidateAll() {
+        verdicts.invalidateAll();
+    }
+
+    public long size() {
+        return verdicts.estimatedSize();
+    }
+
+    /**
+     * @return contadores acumulados de aciertos, fallos y desalojos
+     */
+    public CacheStats stats() {
+        return verdicts.stats();
+    }
+
+    /**
+     * Publica aciertos, fallos, desalojos y tamaño con las métricas estándar de Caffeine ({@code cache.*}).
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verdicts, "verdicts");
+    }
+}
@@ -0,0 +1,112 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.service.GenomeAssembly;
+import com.franciscovelasco.mutantdetector.service.GenomeScanner;
+import com.franciscovelasco.mutantdetector.service.ScannedGenome;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Formato binario {@code application/x-genome} para clientes de alto volumen:
+ * N como entero de 4 bytes big-endian y luego N filas de (N + 3) / 4 bytes, cuatro bases por byte
+ * desde los bits bajos (A=0, C=1, G=2, T=3), con el relleno del último byte en cero.
+ * Cada fila se lee a un buffer reutilizado y se copia tal cual a las palabras del genoma empaquetado.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public class BinaryGenomeConverter extends AbstractHttpMessageConverter<ScannedGenome> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-genome";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final GenomeScanner genomeScanner;
+    private final int maxSize;
+
+    public BinaryGenomeConverter(GenomeScanner genomeScanner, int maxSize) {
+        super(MEDIA_TYPE);
+        this.genomeScanner = genomeScanner;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Codifica filas de texto al formato binario; pensado para clientes y pruebas.
+     *
+     * @param rows matriz NxN con A,C,G,T en mayúsculas
+     * @return cuerpo listo para enviar
+     */
+    public static byte[] encode(List<String> rows) {
+        int size = rows.size();
+        int rowBytes = rowBytes(size);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size * rowBytes).putInt(size);
+        byte[] body = buffer.array();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int code = PackedGenome.code(rows.get(row).charAt(col));
+                body[HEADER_BYTES + row * rowBytes + col / PackedGenome.BASES_PER_BYTE] |=
+                        (byte) (code << (col % PackedGenome.BASES_PER_BYTE * PackedGenome.BITS_PER_BASE));
+            }
+        }
+        return body;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ScannedGenome.class == clazz;
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ScannedGenome readInternal(Class<? extends ScannedGenome> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        InputStream body = inputMessage.getBody();
+        byte[] header = body.readNBytes(HEADER_BYTES);
+        if (header.length < HEADER_BYTES) {
+            throw new GenomeFormatException("El ADN no puede estar vacío");
+        }
+        int size = ByteBuffer.wrap(header).getInt();
+        // El tope evita que un encabezado arbitrario reserve memoria antes de recibir las filas.
+        if (size > maxSize) {
+            throw new GenomeFormatException("La matriz admite como máximo " + maxSize + "x" + maxSize);
+        }
+        if (size < SequenceDetector.WINDOW) {
+            throw new GenomeFormatException("La matriz debe ser al menos 4x4");
+        }
+        GenomeAssembly assembly = genomeScanner.assemble(size);
+        byte[] row = new byte[rowBytes(size)];
+        for (int index = 0; index < size; index++) {
+            if (body.readNBytes(row, 0, row.length) < row.length) {
+                throw new GenomeFormatException("La matriz debe ser NxN");
+            }
+            assembly.acceptPackedRow(row, 0);
+        }
+        if (body.read() != -1) {
+            throw new GenomeFormatException("La matriz debe ser NxN");
+        }
+        return assembly.finish();
+    }
+
+    @Override
+    protected void writeInternal(ScannedGenome scannedGenome, HttpOutputMessage outputMessage) {
+        throw new UnsupportedOperationException("Solo lectura");
+    }
+
+    private static int rowBytes(int size) {
+        return (size + PackedGenome.BASES_PER_BYTE - 1) / PackedGenome.BASES_PER_BYTE;
+    }
+}
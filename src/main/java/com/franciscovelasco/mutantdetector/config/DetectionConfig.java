@@ -0,0 +1,67 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import com.franciscovelasco.mutantdetector.detection.DetectionMode;
+import com.franciscovelasco.mutantdetector.detection.PackedScanDetector;
+import com.franciscovelasco.mutantdetector.detection.ParallelSequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SkipScanDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.TiledSweepDetector;
+import com.franciscovelasco.mutantdetector.detection.VectorSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Registra el motor de detección que usa el servicio de análisis.
+ * El modo se elige por configuración para poder comparar motores sin recompilar.
+ * Solo los motores que leen base por base se reparten por bandas en matrices grandes: SWAR, vectorial y por
+ * bloques ya son más rápidos que esa pasada, así que atienden todos los tamaños y conservan la detección fusionada.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Configuration
+public class DetectionConfig {
+
+    /**
+     * Pool exclusivo para matrices grandes; no compite con el common pool ni con los hilos de Tomcat.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool detectionPool(@Value("${genome.detection.parallel.threads:0}") int threads) {
+        return new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    public SequenceDetector sequenceDetector(@Value("${genome.detection.mode:swar}") String mode,
+                                             @Value("${genome.detection.parallel.threshold:1024}") int threshold,
+                                             @Value("${genome.detection.parallel.band-rows:256}") int bandRows,
+                                             @Value("${genome.detection.tiled.tile-rows:64}") int tileRows,
+                                             @Value("${genome.detection.tiled.tile-columns:512}") int tileColumns,
+                                             ForkJoinPool detectionPool) {
+        DetectionMode detectionMode = DetectionMode.from(mode);
+        SequenceDetector sequential = switch (detectionMode) {
+            case SCALAR -> new PackedScanDetector();
+            case SWAR -> new SwarSequenceDetector();
+            case VECTOR -> vectorOrScalar();
+            case SKIP_SCAN -> new SkipScanDetector();
+            case TILED -> new TiledSweepDetector(tileRows, tileColumns);
+        };
+        // Sin Vector API el modo vectorial cae al escalar, que sí gana repartido en núcleos.
+        if (!detectionMode.isPerCell() && !(sequential instanceof PackedScanDetector)) {
+            return sequential;
+        }
+        return new ParallelSequenceDetector(sequential, detectionPool, threshold, bandRows);
+    }
+
+    private SequenceDetector vectorOrScalar() {
+        return VectorSupport.createDetector().orElseGet(() -> {
+            // Sin --add-modules jdk.incubator.vector volvemos al recorrido escalar en lugar de fallar al arrancar.
+            log.warn("Vector API no disponible; se usa el detector escalar");
+            return new PackedScanDetector();
+        });
+    }
+}
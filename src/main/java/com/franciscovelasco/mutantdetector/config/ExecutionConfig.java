@@ -0,0 +1,35 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Hilos propios de la aplicación. Siguen el mismo interruptor que Tomcat y el executor de Spring MVC:
+ * con {@code spring.threads.virtual.enabled=true} sobre Java 21 se crean hilos virtuales.
+ * Se expone una fábrica y no un Executor para no desplazar el executor que autoconfigura Spring Boot.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Configuration
+public class ExecutionConfig {
+
+    /**
+     * Hilo de escritura diferida de dna_audit. Pasa casi todo su tiempo bloqueado en la cola o en JDBC,
+     * justo el caso en que un hilo virtual libera al hilo del sistema operativo.
+     */
+    @Bean
+    public ThreadFactory auditWriterThreadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("dna-audit-writer-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("dna-audit-writer-");
+        factory.setDaemon(true);
+        return factory;
+    }
+}
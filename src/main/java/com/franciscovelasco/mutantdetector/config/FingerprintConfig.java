@@ -0,0 +1,25 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import com.franciscovelasco.mutantdetector.fingerprint.CanonicalFingerprinter;
+import com.franciscovelasco.mutantdetector.fingerprint.FingerprintAlgorithm;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Elige la estrategia de huella con la que se deduplican los genomas y, opcionalmente, la hace indiferente a
+ * rotaciones y reflejos de la matriz.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Configuration
+public class FingerprintConfig {
+
+    @Bean
+    public GenomeFingerprinter genomeFingerprinter(@Value("${genome.fingerprint.algorithm:murmur3}") String algorithm,
+                                                   @Value("${genome.fingerprint.canonical:false}") boolean canonical) {
+        GenomeFingerprinter fingerprinter = FingerprintAlgorithm.from(algorithm).create();
+        return canonical ? new CanonicalFingerprinter(fingerprinter) : fingerprinter;
+    }
+}
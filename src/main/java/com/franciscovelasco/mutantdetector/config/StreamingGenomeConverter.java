@@ -0,0 +1,103 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.service.GenomeAssembly;
+import com.franciscovelasco.mutantdetector.service.GenomeScanner;
+import com.franciscovelasco.mutantdetector.service.ScannedGenome;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Lee el cuerpo {"dna": [...]} token por token y vuelca cada fila directo en el genoma empaquetado.
+ * No se materializa la lista de Strings: cada fila se valida sobre el buffer interno del parser y,
+ * ante el primer símbolo inválido o la primera fila de otro largo, se rechaza sin leer el resto del cuerpo.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public class StreamingGenomeConverter extends AbstractHttpMessageConverter<ScannedGenome> {
+
+    private static final String DNA_FIELD = "dna";
+
+    private final JsonFactory jsonFactory;
+    private final GenomeScanner genomeScanner;
+
+    public StreamingGenomeConverter(JsonFactory jsonFactory, GenomeScanner genomeScanner) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = jsonFactory;
+        this.genomeScanner = genomeScanner;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ScannedGenome.class == clazz;
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ScannedGenome readInternal(Class<? extends ScannedGenome> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalidBody();
+            }
+            ScannedGenome scanned = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (DNA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    scanned = readRows(parser);
+                } else if (DNA_FIELD.equals(field) && value != JsonToken.VALUE_NULL) {
+                    throw invalidBody();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (scanned == null) {
+                throw new GenomeFormatException("El ADN no puede estar vacío");
+            }
+            return scanned;
+        } catch (JsonProcessingException ex) {
+            throw invalidBody();
+        }
+    }
+
+    private ScannedGenome readRows(JsonParser parser) throws IOException {
+        GenomeAssembly assembly = genomeScanner.assemble();
+        JsonToken token = parser.nextToken();
+        while (token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                // Vista sobre el buffer del parser: se consume antes del próximo token, sin copiar la fila.
+                assembly.acceptRow(CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength()));
+            } else if (token == JsonToken.VALUE_NULL) {
+                assembly.acceptRow("");
+            } else {
+                throw invalidBody();
+            }
+            token = parser.nextToken();
+        }
+        return assembly.finish();
+    }
+
+    @Override
+    protected void writeInternal(ScannedGenome scannedGenome, HttpOutputMessage outputMessage) {
+        throw new UnsupportedOperationException("Solo lectura");
+    }
+
+    private static GenomeFormatException invalidBody() {
+        return new GenomeFormatException("El cuerpo debe ser un objeto JSON con el campo dna como arreglo de filas");
+    }
+}
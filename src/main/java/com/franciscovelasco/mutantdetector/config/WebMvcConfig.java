@@ -0,0 +1,45 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Resolution;
+import com.franciscovelasco.mutantdetector.service.GenomeScanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registra los lectores de genomas (JSON por streaming y binario) delante del conversor JSON general.
+ * Solo atiende parámetros de tipo ScannedGenome, así que el resto de los endpoints no cambia.
+ * También acepta la resolución de /stats/timeseries en minúsculas ({@code minute}, {@code hour}, {@code day}).
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final GenomeScanner genomeScanner;
+    private final int binaryMaxSize;
+
+    public WebMvcConfig(ObjectMapper objectMapper, GenomeScanner genomeScanner,
+                        @Value("${genome.binary.max-size:${genome.max-size:16384}}") int binaryMaxSize) {
+        this.objectMapper = objectMapper;
+        this.genomeScanner = genomeScanner;
+        this.binaryMaxSize = binaryMaxSize;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new StreamingGenomeConverter(objectMapper.getFactory(), genomeScanner));
+        converters.add(1, new BinaryGenomeConverter(genomeScanner, binaryMaxSize));
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, Resolution.class, Resolution::fromTag);
+    }
+}
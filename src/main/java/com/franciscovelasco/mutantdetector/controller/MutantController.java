@@ -1,18 +1,40 @@
 package com.franciscovelasco.mutantdetector.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.franciscovelasco.mutantdetector.config.BinaryGenomeConverter;
+import com.franciscovelasco.mutantdetector.dto.BatchVerdictPayload;
+import com.franciscovelasco.mutantdetector.dto.CacheStatsPayload;
 import com.franciscovelasco.mutantdetector.dto.GenomeInput;
 import com.franciscovelasco.mutantdetector.dto.StatsPayload;
+import com.franciscovelasco.mutantdetector.dto.TimeseriesPayload;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Resolution;
 import com.franciscovelasco.mutantdetector.service.DnaAnalyzerService;
+import com.franciscovelasco.mutantdetector.service.DnaBatchService;
 import com.franciscovelasco.mutantdetector.service.DnaMetricsService;
-import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import com.franciscovelasco.mutantdetector.service.ScannedGenome;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Puerta de entrada HTTP. Aquí solo orquestamos servicios y traducimos códigos de estado.
@@ -22,24 +44,107 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @Validated
-@RequiredArgsConstructor
 public class MutantController {
 
+    private static final byte[] LINE_BREAK = {'\n'};
+
     private final DnaAnalyzerService dnaAnalyzerService;
+    private final DnaBatchService dnaBatchService;
     private final DnaMetricsService dnaMetricsService;
+    private final ObjectMapper objectMapper;
+    private final int batchMaxSize;
+
+    public MutantController(DnaAnalyzerService dnaAnalyzerService,
+                            DnaBatchService dnaBatchService,
+                            DnaMetricsService dnaMetricsService,
+                            ObjectMapper objectMapper,
+                            @Value("${genome.batch.max-size:10000}") int batchMaxSize) {
+        this.dnaAnalyzerService = dnaAnalyzerService;
+        this.dnaBatchService = dnaBatchService;
+        this.dnaMetricsService = dnaMetricsService;
+        this.objectMapper = objectMapper;
+        this.batchMaxSize = batchMaxSize;
+    }
 
+    /**
+     * El cuerpo lo arman {@code StreamingGenomeConverter} (JSON) o {@link BinaryGenomeConverter} (application/x-genome)
+     * fila por fila; {@link GenomeInput} queda como esquema documentado del JSON.
+     */
     @PostMapping("/mutant/")
-    public ResponseEntity<Void> analyzeGenome(@Valid @RequestBody GenomeInput genomeInput) {
-        boolean mutant = dnaAnalyzerService.inspectGenome(genomeInput.dnaRows());
+    public ResponseEntity<Void> analyzeGenome(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = GenomeInput.class)),
+                    @Content(mediaType = BinaryGenomeConverter.MEDIA_TYPE_VALUE,
+                            schema = @Schema(type = "string", format = "binary"))})
+            @RequestBody ScannedGenome scannedGenome) {
+        boolean mutant = dnaAnalyzerService.inspectGenome(scannedGenome);
         // Forzamos 403 para humanos porque el cliente necesita distinguir ambos casos sin payload adicional.
         return mutant
                 ? ResponseEntity.ok().build()
                 : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
     }
 
+    /**
+     * Acepta un arreglo JSON o NDJSON de genomas y responde una línea NDJSON por genoma a medida que se resuelve.
+     */
+    @PostMapping(value = "/mutant/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> analyzeBatch(InputStream body) throws IOException {
+        // El lote se lee completo antes de responder para poder deduplicar y consultar la base una sola vez.
+        List<GenomeInput> genomes = readBatch(body);
+        StreamingResponseBody stream = output -> {
+            dnaBatchService.inspectBatch(genomes, verdict -> writeLine(output, verdict));
+            output.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<StatsPayload> stats() {
         return ResponseEntity.ok(dnaMetricsService.fetchStats());
     }
-}
 
+    /**
+     * Conteos por minuto, hora o día; {@code resolution} se convierte desde su nombre en minúsculas (ver WebMvcConfig).
+     */
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<TimeseriesPayload> timeseries(
+            @RequestParam(defaultValue = "minute") Resolution resolution,
+            @RequestParam(defaultValue = "60") int buckets) {
+        return ResponseEntity.ok(dnaMetricsService.fetchTimeseries(resolution, buckets));
+    }
+
+    @GetMapping("/stats/cache")
+    public ResponseEntity<CacheStatsPayload> cacheStats() {
+        return ResponseEntity.ok(dnaMetricsService.fetchCacheStats());
+    }
+
+    // Un arreglo raíz se recorre elemento por elemento; sin arreglo, Jackson lee valores separados por saltos de línea.
+    private List<GenomeInput> readBatch(InputStream body) throws IOException {
+        List<GenomeInput> genomes = new ArrayList<>();
+        try (MappingIterator<GenomeInput> values = objectMapper.readerFor(GenomeInput.class).readValues(body)) {
+            while (values.hasNextValue()) {
+                if (genomes.size() == batchMaxSize) {
+                    throw new GenomeFormatException("El lote admite como máximo " + batchMaxSize + " genomas");
+                }
+                genomes.add(values.nextValue());
+            }
+        } catch (JsonProcessingException ex) {
+            throw new GenomeFormatException("El lote debe ser un arreglo JSON o NDJSON de objetos con el campo dna");
+        }
+        return genomes;
+    }
+
+    private void writeLine(OutputStream output, BatchVerdictPayload verdict) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(verdict));
+            output.write(LINE_BREAK);
+            // Cada veredicto sale apenas se conoce, sin esperar al resto del lote.
+            output.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Motores de detección disponibles, seleccionables con la propiedad {@code genome.detection.mode}.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public enum DetectionMode {
+    SCALAR(true),
+    SWAR(false),
+    VECTOR(false),
+    SKIP_SCAN(true),
+    TILED(false);
+
+    private final boolean perCell;
+
+    DetectionMode(boolean perCell) {
+        this.perCell = perCell;
+    }
+
+    /**
+     * Los motores que leen base por base no son más rápidos que el recorrido por bandas de
+     * {@link ParallelSequenceDetector}, así que en matrices grandes conviene repartirlos en núcleos.
+     * Los que procesan palabras o bloques enteros le ganan a esa pasada por celdas y se usan solos.
+     *
+     * @return true si el motor se envuelve en el recorrido paralelo por bandas
+     */
+    public boolean isPerCell() {
+        return perCell;
+    }
+
+    /**
+     * Interpreta el valor de configuración sin distinguir mayúsculas ni guiones.
+     *
+     * @param value texto configurado, por ejemplo "swar"
+     * @return modo correspondiente
+     */
+    public static DetectionMode from(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
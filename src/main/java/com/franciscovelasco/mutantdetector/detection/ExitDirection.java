@@ -0,0 +1,23 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Dirección de la secuencia que completó el mínimo requerido y cortó la búsqueda.
+ * Se usa solo como etiqueta de métricas; los motores que no la distinguen informan {@link #UNKNOWN}.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public enum ExitDirection {
+    HORIZONTAL,
+    VERTICAL,
+    DIAGONAL,
+    ANTI_DIAGONAL,
+    /**
+     * Se recorrió la matriz completa sin alcanzar el mínimo: es humano.
+     */
+    NONE,
+    UNKNOWN;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
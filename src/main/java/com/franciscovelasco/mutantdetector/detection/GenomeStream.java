@@ -0,0 +1,29 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Detección incremental que consume el genoma fila por fila mientras se empaqueta.
+ * Permite resolver el veredicto en la misma pasada que valida la entrada.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public interface GenomeStream {
+
+    /**
+     * Procesa una fila recién escrita; las filas anteriores siguen disponibles en el genoma.
+     *
+     * @param row índice de la fila completada, en orden creciente
+     */
+    void acceptRow(int row);
+
+    /**
+     * @return true en cuanto se alcanzó el mínimo de secuencias, momento en que ya no hace falta seguir
+     */
+    boolean isMutant();
+
+    /**
+     * @return dirección que completó el mínimo, o {@link ExitDirection#UNKNOWN} si el motor no la registra
+     */
+    default ExitDirection exitDirection() {
+        return isMutant() ? ExitDirection.UNKNOWN : ExitDirection.NONE;
+    }
+}
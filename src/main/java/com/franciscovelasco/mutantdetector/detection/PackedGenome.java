@@ -0,0 +1,176 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matriz NxN de ADN empaquetada a 2 bits por base dentro de palabras {@code long}.
+ * Cada fila ocupa un bloque propio de palabras para que los detectores puedan recorrerla sin copiar.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class PackedGenome {
+
+    public static final int BITS_PER_BASE = 2;
+    public static final int BASES_PER_WORD = Long.SIZE / BITS_PER_BASE;
+    public static final long BASE_MASK = 0b11L;
+    public static final int BASES_PER_BYTE = Byte.SIZE / BITS_PER_BASE;
+
+    private static final String SYMBOLS = "ACGT";
+
+    private final int size;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public PackedGenome(int size) {
+        this.size = size;
+        this.wordsPerRow = (size + BASES_PER_WORD - 1) / BASES_PER_WORD;
+        this.words = new long[size * wordsPerRow];
+    }
+
+    /**
+     * Empaqueta filas ya validadas (solo A,T,C,G y matriz NxN).
+     *
+     * @param rows filas normalizadas
+     * @return genoma empaquetado
+     */
+    public static PackedGenome encode(List<String> rows) {
+        int size = rows.size();
+        PackedGenome genome = new PackedGenome(size);
+        int row = 0;
+        while (row < size) {
+            String line = rows.get(row);
+            int col = 0;
+            while (col < size) {
+                genome.setBase(row, col, code(line.charAt(col)));
+                col++;
+            }
+            row++;
+        }
+        return genome;
+    }
+
+    /**
+     * Traduce un símbolo a su código de 2 bits.
+     *
+     * @param symbol base nitrogenada en mayúsculas
+     * @return código entre 0 y 3, o -1 si el símbolo no es válido
+     */
+    public static int code(char symbol) {
+        return switch (symbol) {
+            case 'A' -> 0;
+            case 'C' -> 1;
+            case 'G' -> 2;
+            case 'T' -> 3;
+            default -> -1;
+        };
+    }
+
+    public static char symbol(int code) {
+        return SYMBOLS.charAt(code);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Expone el buffer interno para los detectores; no debe modificarse fuera de la ingesta.
+     *
+     * @return palabras fila por fila, {@link #wordsPerRow()} por cada fila
+     */
+    public long[] words() {
+        return words;
+    }
+
+    /**
+     * Bytes que ocupa una fila en el formato de cuatro bases por byte de {@link #loadRow} y {@link #storeRow}.
+     *
+     * @return (size + 3) / 4
+     */
+    public int bytesPerRow() {
+        return (size + BASES_PER_BYTE - 1) / BASES_PER_BYTE;
+    }
+
+    public int baseAt(int row, int col) {
+        long word = words[row * wordsPerRow + col / BASES_PER_WORD];
+        return (int) (word >>> ((col % BASES_PER_WORD) * BITS_PER_BASE) & BASE_MASK);
+    }
+
+    /**
+     * Escribe una base asumiendo que la posición todavía está en cero.
+     *
+     * @param row fila destino
+     * @param col columna destino
+     * @param code código de 2 bits
+     */
+    public void setBase(int row, int col, int code) {
+        words[row * wordsPerRow + col / BASES_PER_WORD] |= (long) code << ((col % BASES_PER_WORD) * BITS_PER_BASE);
+    }
+
+    /**
+     * Copia una fila que ya viene a 2 bits por base, cuatro bases por byte empezando por los bits bajos.
+     * Ese orden coincide con el de las palabras, así que cada byte va a su lugar sin decodificar bases.
+     *
+     * @param row    fila destino, todavía en cero
+     * @param packed buffer con (size + 3) / 4 bytes para la fila
+     * @param offset posición del primer byte de la fila en el buffer
+     * @return false si los bits de relleno del último byte no están en cero
+     */
+    public boolean loadRow(int row, byte[] packed, int offset) {
+        int bytes = bytesPerRow();
+        int trailing = size % BASES_PER_BYTE;
+        if (trailing != 0 && (packed[offset + bytes - 1] & 0xFF) >>> (trailing * BITS_PER_BASE) != 0) {
+            return false;
+        }
+        int base = row * wordsPerRow;
+        int index = 0;
+        while (index < bytes) {
+            words[base + index / Long.BYTES] |= (packed[offset + index] & 0xFFL) << (index % Long.BYTES * Byte.SIZE);
+            index++;
+        }
+        return true;
+    }
+
+    /**
+     * Operación inversa de {@link #loadRow}: vuelca una fila a cuatro bases por byte con el relleno en cero.
+     *
+     * @param row    fila origen
+     * @param packed buffer destino con lugar para {@link #bytesPerRow()} bytes
+     * @param offset posición donde escribir el primer byte de la fila
+     */
+    public void storeRow(int row, byte[] packed, int offset) {
+        int base = row * wordsPerRow;
+        int bytes = bytesPerRow();
+        int index = 0;
+        while (index < bytes) {
+            packed[offset + index] = (byte) (words[base + index / Long.BYTES] >>> (index % Long.BYTES * Byte.SIZE));
+            index++;
+        }
+    }
+
+    /**
+     * Reconstruye las filas en texto, útil para auditorías.
+     *
+     * @return filas con los símbolos originales
+     */
+    public List<String> toRows() {
+        List<String> rows = new ArrayList<>(size);
+        char[] buffer = new char[size];
+        int row = 0;
+        while (row < size) {
+            int col = 0;
+            while (col < size) {
+                buffer[col] = symbol(baseAt(row, col));
+                col++;
+            }
+            rows.add(new String(buffer));
+            row++;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,99 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Detector escalar que recorre las cuatro direcciones leyendo directo del buffer empaquetado.
+ * No crea arreglos intermedios por columna ni por diagonal, así que no genera basura por request.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class PackedScanDetector implements SequenceDetector {
+
+    @Override
+    public boolean detect(PackedGenome genome) {
+        int found = exploreRows(genome, 0);
+        if (found < REQUIRED_MATCHES) {
+            found = exploreColumns(genome, found);
+        }
+        if (found < REQUIRED_MATCHES) {
+            found = explorePrimaryDiagonals(genome, found);
+        }
+        if (found < REQUIRED_MATCHES) {
+            found = exploreSecondaryDiagonals(genome, found);
+        }
+        return found >= REQUIRED_MATCHES;
+    }
+
+    private int exploreRows(PackedGenome genome, int found) {
+        int row = 0;
+        while (row < genome.size() && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, row, 0, 0, 1, found);
+            row++;
+        }
+        return found;
+    }
+
+    private int exploreColumns(PackedGenome genome, int found) {
+        int col = 0;
+        while (col < genome.size() && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, 0, col, 1, 0, found);
+            col++;
+        }
+        return found;
+    }
+
+    private int explorePrimaryDiagonals(PackedGenome genome, int found) {
+        int limit = genome.size() - WINDOW;
+        int row = 0;
+        while (row <= limit && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, row, 0, 1, 1, found);
+            row++;
+        }
+        int col = 1;
+        while (col <= limit && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, 0, col, 1, 1, found);
+            col++;
+        }
+        return found;
+    }
+
+    private int exploreSecondaryDiagonals(PackedGenome genome, int found) {
+        int limit = genome.size() - WINDOW;
+        int lastColumn = genome.size() - 1;
+        int row = 0;
+        while (row <= limit && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, row, lastColumn, 1, -1, found);
+            row++;
+        }
+        int col = lastColumn - 1;
+        while (col >= WINDOW - 1 && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, 0, col, 1, -1, found);
+            col--;
+        }
+        return found;
+    }
+
+    // Misma semántica que la versión con char[]: al llegar a WINDOW se registra y la racha vuelve a 1.
+    private int inspectLine(PackedGenome genome, int row, int col, int rowStep, int colStep, int found) {
+        int size = genome.size();
+        int previous = genome.baseAt(row, col);
+        int streak = 1;
+        row += rowStep;
+        col += colStep;
+        while (row < size && col >= 0 && col < size && found < REQUIRED_MATCHES) {
+            int current = genome.baseAt(row, col);
+            if (current == previous) {
+                streak++;
+                if (streak == WINDOW) {
+                    found++;
+                    streak = 1;
+                }
+            } else {
+                streak = 1;
+                previous = current;
+            }
+            row += rowStep;
+            col += colStep;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,171 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Divide matrices grandes en bandas de filas y las recorre en paralelo sobre un {@link ForkJoinPool} propio.
+ * Cada banda es dueña de las rachas que comienzan en sus filas: las sigue por un halo bajo su borde mientras
+ * sigan abiertas (tres filas alcanzan para completar una secuencia) e ignora las que vienen de la banda
+ * anterior, así el conteo coincide con el recorrido secuencial.
+ * Por debajo del umbral se delega en el detector secuencial configurado.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class ParallelSequenceDetector implements SequenceDetector {
+
+    // Estados por carril: racha ajena que viene de la banda anterior, propia en conteo, o ya cerrada.
+    private static final byte FOREIGN = 0;
+    private static final byte OWNED = 1;
+    private static final byte CLOSED = 2;
+
+    private final SequenceDetector sequential;
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int bandRows;
+
+    public ParallelSequenceDetector(SequenceDetector sequential, ForkJoinPool pool, int threshold, int bandRows) {
+        this.sequential = sequential;
+        this.pool = pool;
+        this.threshold = threshold;
+        this.bandRows = Math.max(WINDOW, bandRows);
+    }
+
+    @Override
+    public boolean detect(PackedGenome genome) {
+        if (genome.size() < threshold) {
+            return sequential.detect(genome);
+        }
+        AtomicInteger found = new AtomicInteger();
+        pool.invoke(new BandTask(genome, 0, genome.size(), found));
+        return found.get() >= REQUIRED_MATCHES;
+    }
+
+    @Override
+    public GenomeStream openStream(PackedGenome genome) {
+        // Las matrices grandes se resuelven en paralelo una vez completas; las chicas siguen fusionadas.
+        return genome.size() < threshold ? sequential.openStream(genome) : null;
+    }
+
+    private final class BandTask extends RecursiveAction {
+        private final PackedGenome genome;
+        private final int start;
+        private final int end;
+        private final AtomicInteger found;
+
+        private BandTask(PackedGenome genome, int start, int end, AtomicInteger found) {
+            this.genome = genome;
+            this.start = start;
+            this.end = end;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get() >= REQUIRED_MATCHES) {
+                return;
+            }
+            if (end - start > bandRows) {
+                int middle = start + (end - start) / 2;
+                invokeAll(new BandTask(genome, start, middle, found), new BandTask(genome, middle, end, found));
+                return;
+            }
+            scanBand(genome, start, end, found);
+        }
+    }
+
+    private static void scanBand(PackedGenome genome, int start, int end, AtomicInteger found) {
+        int size = genome.size();
+        byte[] columnStatus = new byte[size];
+        byte[] columnCounter = new byte[size];
+        byte[] diagonalStatus = new byte[2 * size];
+        byte[] diagonalCounter = new byte[2 * size];
+        byte[] antiStatus = new byte[2 * size];
+        byte[] antiCounter = new byte[2 * size];
+        int row = start;
+        while (row < size && found.get() < REQUIRED_MATCHES) {
+            boolean inBand = row < end;
+            int local = inBand ? countRow(genome, row) : 0;
+            int alive = 0;
+            int col = 0;
+            while (col < size) {
+                int base = genome.baseAt(row, col);
+                int diagonal = col - row + size - 1;
+                int anti = col + row;
+                if (row == start) {
+                    columnStatus[col] = start > 0 && genome.baseAt(row - 1, col) == base ? FOREIGN : OWNED;
+                    diagonalStatus[diagonal] = start > 0 && col > 0
+                            && genome.baseAt(row - 1, col - 1) == base ? FOREIGN : OWNED;
+                    antiStatus[anti] = start > 0 && col < size - 1
+                            && genome.baseAt(row - 1, col + 1) == base ? FOREIGN : OWNED;
+                } else {
+                    local += transition(columnStatus, columnCounter, col,
+                            genome.baseAt(row - 1, col) == base, inBand);
+                    // En los bordes nace una diagonal nueva, que equivale a una comparación distinta.
+                    local += transition(diagonalStatus, diagonalCounter, diagonal,
+                            col > 0 && genome.baseAt(row - 1, col - 1) == base, inBand);
+                    local += transition(antiStatus, antiCounter, anti,
+                            col < size - 1 && genome.baseAt(row - 1, col + 1) == base, inBand);
+                    if (!inBand) {
+                        alive += isOpen(columnStatus[col]) + isOpen(diagonalStatus[diagonal]) + isOpen(antiStatus[anti]);
+                    }
+                }
+                col++;
+            }
+            if (local > 0) {
+                found.addAndGet(local);
+            }
+            // El halo termina cuando ninguna racha nacida en la banda sigue abierta.
+            if (!inBand && alive == 0) {
+                return;
+            }
+            row++;
+        }
+    }
+
+    private static int transition(byte[] status, byte[] counter, int lane, boolean equal, boolean inBand) {
+        byte current = status[lane];
+        if (current == OWNED && equal) {
+            if (counter[lane] == 2) {
+                counter[lane] = 0;
+                return 1;
+            }
+            counter[lane]++;
+            return 0;
+        }
+        if (current == FOREIGN && equal) {
+            return 0;
+        }
+        // La racha anterior terminó: dentro de la banda empieza una propia, en el halo ya no nos corresponde.
+        status[lane] = inBand ? OWNED : CLOSED;
+        counter[lane] = 0;
+        return 0;
+    }
+
+    private static int isOpen(byte status) {
+        return status == OWNED ? 1 : 0;
+    }
+
+    private static int countRow(PackedGenome genome, int row) {
+        int matches = 0;
+        int streak = 1;
+        int previous = genome.baseAt(row, 0);
+        int col = 1;
+        while (col < genome.size()) {
+            int base = genome.baseAt(row, col);
+            if (base == previous) {
+                streak++;
+                if (streak == WINDOW) {
+                    matches++;
+                    streak = 1;
+                }
+            } else {
+                streak = 1;
+                previous = base;
+            }
+            col++;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,31 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Contrato común de los motores que cuentan secuencias de cuatro bases iguales.
+ * Todos deben respetar el mismo conteo: al completar una secuencia la racha vuelve a 1.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public interface SequenceDetector {
+
+    int WINDOW = 4;
+    int REQUIRED_MATCHES = 2;
+
+    /**
+     * Evalúa filas, columnas y ambas diagonales del genoma.
+     *
+     * @param genome matriz empaquetada y validada
+     * @return true cuando se encuentran dos o más secuencias
+     */
+    boolean detect(PackedGenome genome);
+
+    /**
+     * Abre una detección incremental sobre un genoma que todavía se está llenando.
+     *
+     * @param genome buffer que recibirá las filas en orden
+     * @return el flujo incremental, o null si el motor solo trabaja con la matriz completa
+     */
+    default GenomeStream openStream(PackedGenome genome) {
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Detector que sondea una de cada dos bases por línea y solo mira el resto donde dos sondas seguidas coinciden.
+ * Si las sondas {@code i} e {@code i + 2} difieren, hay un cambio de base entre ellas y ninguna racha de cuatro
+ * las contiene a ambas; como toda racha de cuatro contiene dos sondas seguidas, ninguna secuencia se pierde.
+ * No es sublineal: las sondas son la mitad de las bases y a cada par de sondas iguales se le lee además la base
+ * del medio, así que el trabajo sigue siendo Θ(N²) por dirección (4N² lecturas como techo) con una constante menor.
+ * En genomas humanos, donde no hay salida temprana, un par coincide con probabilidad 1/4 y se leen cerca de
+ * 1/2 + 1/2 · 1/4 = 62,5 % de las bases; si cada línea alterna dos bases (todos los pares coinciden, sin rachas),
+ * se leen todas. Cada lectura es un acceso por coordenadas al genoma empaquetado, no una palabra entera como en SWAR.
+ * El conteo es el mismo que el del resto de los motores: una racha máxima de largo L aporta (L - 1) / 3 secuencias,
+ * que es lo que produce reiniciar la racha en 1 al completar cada una.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class SkipScanDetector implements SequenceDetector {
+
+    // Distancia entre sondas: la mayor para la que dos sondas seguidas caen dentro de cualquier racha de WINDOW bases.
+    private static final int STRIDE = 2;
+
+    @Override
+    public boolean detect(PackedGenome genome) {
+        int found = exploreRows(genome, 0);
+        if (found < REQUIRED_MATCHES) {
+            found = exploreColumns(genome, found);
+        }
+        if (found < REQUIRED_MATCHES) {
+            found = explorePrimaryDiagonals(genome, found);
+        }
+        if (found < REQUIRED_MATCHES) {
+            found = exploreSecondaryDiagonals(genome, found);
+        }
+        return found >= REQUIRED_MATCHES;
+    }
+
+    private int exploreRows(PackedGenome genome, int found) {
+        int row = 0;
+        while (row < genome.size() && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, row, 0, 0, 1, genome.size(), found);
+            row++;
+        }
+        return found;
+    }
+
+    private int exploreColumns(PackedGenome genome, int found) {
+        int col = 0;
+        while (col < genome.size() && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, 0, col, 1, 0, genome.size(), found);
+            col++;
+        }
+        return found;
+    }
+
+    private int explorePrimaryDiagonals(PackedGenome genome, int found) {
+        int limit = genome.size() - WINDOW;
+        int row = 0;
+        while (row <= limit && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, row, 0, 1, 1, genome.size() - row, found);
+            row++;
+        }
+        int col = 1;
+        while (col <= limit && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, 0, col, 1, 1, genome.size() - col, found);
+            col++;
+        }
+        return found;
+    }
+
+    private int exploreSecondaryDiagonals(PackedGenome genome, int found) {
+        int limit = genome.size() - WINDOW;
+        int lastColumn = genome.size() - 1;
+        int row = 0;
+        while (row <= limit && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, row, lastColumn, 1, -1, genome.size() - row, found);
+            row++;
+        }
+        int col = lastColumn - 1;
+        while (col >= WINDOW - 1 && found < REQUIRED_MATCHES) {
+            found = inspectLine(genome, 0, col, 1, -1, col + 1, found);
+            col--;
+        }
+        return found;
+    }
+
+    private int inspectLine(PackedGenome genome, int row, int col, int rowStep, int colStep, int length, int found) {
+        int probe = 0;
+        int base = baseAt(genome, row, col, rowStep, colStep, probe);
+        while (probe + STRIDE < length && found < REQUIRED_MATCHES) {
+            int next = baseAt(genome, row, col, rowStep, colStep, probe + STRIDE);
+            if (next != base || baseAt(genome, row, col, rowStep, colStep, probe + 1) != base) {
+                probe += STRIDE;
+                base = next;
+            } else {
+                // Tres bases iguales: se expande hasta los bordes de la racha máxima y se la cuenta entera.
+                int start = probe;
+                while (start > 0 && baseAt(genome, row, col, rowStep, colStep, start - 1) == base) {
+                    start--;
+                }
+                int end = probe + STRIDE;
+                while (end + 1 < length && baseAt(genome, row, col, rowStep, colStep, end + 1) == base) {
+                    end++;
+                }
+                found += (end - start) / (WINDOW - 1);
+                probe = end + 1;
+                if (probe < length) {
+                    base = baseAt(genome, row, col, rowStep, colStep, probe);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int baseAt(PackedGenome genome, int row, int col, int rowStep, int colStep, int offset) {
+        return genome.baseAt(row + offset * rowStep, col + offset * colStep);
+    }
+}
@@ -0,0 +1,215 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+/**
+ * Detector SWAR que compara 32 bases por instrucción usando XOR y máscaras sobre palabras de 64 bits.
+ * Las filas se resuelven buscando rachas de bits; columnas y diagonales avanzan fila a fila con un
+ * contador módulo 3 guardado en dos planos de bits, lo que replica el reinicio de racha a 1.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class SwarSequenceDetector implements SequenceDetector {
+
+    // Bit bajo de cada carril de 2 bits.
+    private static final long LANE_LOW_BITS = 0x5555555555555555L;
+    private static final int LAST_LANE_SHIFT = Long.SIZE - PackedGenome.BITS_PER_BASE;
+    // Cada dirección usa dos planos consecutivos de wordsPerRow palabras.
+    private static final int VERTICAL = 0;
+    private static final int DIAGONAL = 2;
+    private static final int ANTI_DIAGONAL = 4;
+
+    @Override
+    public boolean detect(PackedGenome genome) {
+        GenomeStream stream = openStream(genome);
+        int row = 0;
+        while (row < genome.size() && !stream.isMutant()) {
+            stream.acceptRow(row);
+            row++;
+        }
+        return stream.isMutant();
+    }
+
+    @Override
+    public GenomeStream openStream(PackedGenome genome) {
+        return new SwarStream(genome);
+    }
+
+    private static int countRowRuns(long[] words, int offset, int wordCount, int size) {
+        int found = 0;
+        int open = 0;
+        int word = 0;
+        while (word < wordCount) {
+            long equal = equalLanes(words[offset + word], nextLaneWord(words, offset, word, wordCount))
+                    & validLanes(word, size - 1);
+            if (open == 0 && (equal & (equal >>> 2) & (equal >>> 4)) == 0 && (equal >>> LAST_LANE_SHIFT) == 0) {
+                // Ninguna racha llega a tres comparaciones ni continúa en la palabra siguiente.
+                word++;
+                continue;
+            }
+            long bits = equal | (equal << 1);
+            int position = 0;
+            while (position < Long.SIZE) {
+                long rest = bits >>> position;
+                if (rest == 0) {
+                    found += open / 3;
+                    open = 0;
+                    break;
+                }
+                int gap = Long.numberOfTrailingZeros(rest);
+                if (gap > 0) {
+                    found += open / 3;
+                    open = 0;
+                    position += gap;
+                    rest >>>= gap;
+                }
+                int ones = Long.numberOfTrailingZeros(~rest);
+                open += ones / PackedGenome.BITS_PER_BASE;
+                position += ones;
+            }
+            word++;
+        }
+        // Una racha de m comparaciones iguales son m + 1 bases y aporta m / 3 secuencias.
+        return found + open / 3;
+    }
+
+    // Suma en matches[direction / 2] las secuencias que cada dirección completa en esta fila.
+    private static void advanceVertical(long[] words, int upper, int lower, int wordCount, int size, long[] state,
+                                        int[] matches) {
+        int word = 0;
+        while (word < wordCount) {
+            long top = words[upper + word];
+            long valid = validLanes(word, size);
+            long vertical = equalLanes(top, words[lower + word]) & valid;
+            matches[VERTICAL / 2] += step(state, VERTICAL, word, wordCount, vertical);
+
+            long diagonal = equalLanes(top, nextLaneWord(words, lower, word, wordCount)) & validLanes(word, size - 1);
+            matches[DIAGONAL / 2] += step(state, DIAGONAL, word, wordCount, diagonal);
+
+            long anti = equalLanes(top, previousLaneWord(words, lower, word)) & valid;
+            if (word == 0) {
+                anti &= ~1L;
+            }
+            matches[ANTI_DIAGONAL / 2] += step(state, ANTI_DIAGONAL, word, wordCount, anti);
+            word++;
+        }
+        // La diagonal que pasa por la columna c continúa en c + 1 de la fila siguiente; la antidiagonal en c - 1.
+        shiftUp(state, DIAGONAL * wordCount, wordCount);
+        shiftUp(state, (DIAGONAL + 1) * wordCount, wordCount);
+        shiftDown(state, ANTI_DIAGONAL * wordCount, wordCount);
+        shiftDown(state, (ANTI_DIAGONAL + 1) * wordCount, wordCount);
+    }
+
+    // Contador 0..2 por carril: con igualdad avanza y al pasar de 2 registra una secuencia; sin ella vuelve a 0.
+    private static int step(long[] state, int direction, int word, int wordCount, long equal) {
+        int bit0Index = direction * wordCount + word;
+        int bit1Index = bit0Index + wordCount;
+        long bit0 = state[bit0Index];
+        long bit1 = state[bit1Index];
+        state[bit0Index] = equal & ~bit0 & ~bit1;
+        state[bit1Index] = equal & bit0;
+        return Long.bitCount(equal & bit1);
+    }
+
+    private static void shiftUp(long[] plane, int offset, int wordCount) {
+        long carry = 0;
+        int word = 0;
+        while (word < wordCount) {
+            long value = plane[offset + word];
+            plane[offset + word] = (value << PackedGenome.BITS_PER_BASE) | carry;
+            carry = value >>> LAST_LANE_SHIFT;
+            word++;
+        }
+    }
+
+    private static void shiftDown(long[] plane, int offset, int wordCount) {
+        long carry = 0;
+        int word = wordCount - 1;
+        while (word >= 0) {
+            long value = plane[offset + word];
+            plane[offset + word] = (value >>> PackedGenome.BITS_PER_BASE) | (carry << LAST_LANE_SHIFT);
+            carry = value;
+            word--;
+        }
+    }
+
+    private static long equalLanes(long left, long right) {
+        long diff = left ^ right;
+        return ~(diff | (diff >>> 1)) & LANE_LOW_BITS;
+    }
+
+    // Bases desplazadas un carril: en la posición c queda la base c + 1 de la misma fila.
+    private static long nextLaneWord(long[] words, int offset, int word, int wordCount) {
+        long shifted = words[offset + word] >>> PackedGenome.BITS_PER_BASE;
+        if (word + 1 < wordCount) {
+            shifted |= words[offset + word + 1] << LAST_LANE_SHIFT;
+        }
+        return shifted;
+    }
+
+    // En la posición c queda la base c - 1 de la misma fila.
+    private static long previousLaneWord(long[] words, int offset, int word) {
+        long shifted = words[offset + word] << PackedGenome.BITS_PER_BASE;
+        if (word > 0) {
+            shifted |= words[offset + word - 1] >>> LAST_LANE_SHIFT;
+        }
+        return shifted;
+    }
+
+    // Máscara de carriles con columna menor a limit dentro de la palabra indicada.
+    private static long validLanes(int word, int limit) {
+        int lanes = limit - word * PackedGenome.BASES_PER_WORD;
+        if (lanes >= PackedGenome.BASES_PER_WORD) {
+            return LANE_LOW_BITS;
+        }
+        if (lanes <= 0) {
+            return 0;
+        }
+        return LANE_LOW_BITS & ((1L << (lanes * PackedGenome.BITS_PER_BASE)) - 1);
+    }
+
+    // Planos del contador (bit0, bit1) para columnas, diagonales y antidiagonales, reutilizados fila a fila.
+    private static final class SwarStream implements GenomeStream {
+        private final PackedGenome genome;
+        private final long[] state;
+        private final int[] matches = new int[3];
+        private int found;
+        private ExitDirection exit = ExitDirection.NONE;
+
+        private SwarStream(PackedGenome genome) {
+            this.genome = genome;
+            this.state = new long[genome.wordsPerRow() * 6];
+        }
+
+        @Override
+        public void acceptRow(int row) {
+            int wordCount = genome.wordsPerRow();
+            int current = row * wordCount;
+            credit(countRowRuns(genome.words(), current, wordCount, genome.size()), ExitDirection.HORIZONTAL);
+            if (row > 0 && found < REQUIRED_MATCHES) {
+                matches[0] = 0;
+                matches[1] = 0;
+                matches[2] = 0;
+                advanceVertical(genome.words(), current - wordCount, current, wordCount, genome.size(), state, matches);
+                credit(matches[VERTICAL / 2], ExitDirection.VERTICAL);
+                credit(matches[DIAGONAL / 2], ExitDirection.DIAGONAL);
+                credit(matches[ANTI_DIAGONAL / 2], ExitDirection.ANTI_DIAGONAL);
+            }
+        }
+
+        @Override
+        public boolean isMutant() {
+            return found >= REQUIRED_MATCHES;
+        }
+
+        @Override
+        public ExitDirection exitDirection() {
+            return exit;
+        }
+
+        private void credit(int sequences, ExitDirection direction) {
+            if (found < REQUIRED_MATCHES && found + sequences >= REQUIRED_MATCHES) {
+                exit = direction;
+            }
+            found += sequences;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import java.util.Arrays;
+
+/**
+ * Detector que evalúa las cuatro direcciones barriendo fila por fila, recorriendo la matriz por bandas y bloques.
+ * Columnas y diagonales no se caminan a lo largo de la matriz: cada una guarda su racha en un arreglo plano que se
+ * actualiza cuando el barrido pasa por su celda, así el genoma se lee en orden de memoria.
+ * Los bloques acotan lo que se toca a la vez: un bloque de {@code tileRows} x {@code tileColumns} lee esa porción
+ * del buffer empaquetado y solo el tramo de los arreglos de rachas que lo cruza, que entran juntos en L1.
+ * Las rachas siguen de un bloque al siguiente porque el estado vive en los arreglos, no en el bloque.
+ * Cada línea tiene que recibir sus celdas en orden de fila. Filas, columnas y diagonales avanzan hacia la derecha o
+ * se quedan en la columna, así que los bloques de una banda se recorren de izquierda a derecha. Las antidiagonales
+ * bajan hacia la izquierda: la celda (f, c) de un bloque sigue a (f - 1, c + 1) del bloque de su derecha, así que
+ * se recorren en una segunda pasada por la banda, con los bloques de derecha a izquierda y la banda ya en caché.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class TiledSweepDetector implements SequenceDetector {
+
+    public static final int DEFAULT_TILE_ROWS = 64;
+    public static final int DEFAULT_TILE_COLUMNS = 512;
+
+    // Estado de una línea: largo de la racha en los bits altos y última base en los dos bajos. Cero es una línea
+    // sin empezar, que avanza igual que una racha cortada.
+    private static final int STREAK_UNIT = 1 << PackedGenome.BITS_PER_BASE;
+    private static final int MATCHED = WINDOW * STREAK_UNIT;
+
+    private final int tileRows;
+    private final int tileColumns;
+
+    public TiledSweepDetector() {
+        this(DEFAULT_TILE_ROWS, DEFAULT_TILE_COLUMNS);
+    }
+
+    /**
+     * @param tileRows    filas por bloque
+     * @param tileColumns columnas por bloque; se redondea a palabras enteras para no partir una palabra entre bloques
+     */
+    public TiledSweepDetector(int tileRows, int tileColumns) {
+        this.tileRows = Math.max(1, tileRows);
+        int words = (tileColumns + PackedGenome.BASES_PER_WORD - 1) / PackedGenome.BASES_PER_WORD;
+        this.tileColumns = Math.max(1, words) * PackedGenome.BASES_PER_WORD;
+    }
+
+    @Override
+    public boolean detect(PackedGenome genome) {
+        int size = genome.size();
+        Sweep sweep = new Sweep(genome, Math.min(tileRows, size));
+        int bandStart = 0;
+        while (bandStart < size) {
+            int bandEnd = Math.min(size, bandStart + tileRows);
+            sweep.startBand();
+            int tileStart = 0;
+            while (tileStart < size) {
+                int tileEnd = Math.min(size, tileStart + tileColumns);
+                if (sweep.visitTile(bandStart, bandEnd, tileStart, tileEnd)) {
+                    return true;
+                }
+                tileStart = tileEnd;
+            }
+            tileStart = (size - 1) / tileColumns * tileColumns;
+            while (tileStart >= 0) {
+                int tileEnd = Math.min(size, tileStart + tileColumns);
+                if (sweep.visitAntiDiagonals(bandStart, bandEnd, tileStart, tileEnd)) {
+                    return true;
+                }
+                tileStart -= tileColumns;
+            }
+            bandStart = bandEnd;
+        }
+        return false;
+    }
+
+    private static final class Sweep {
+        private final long[] words;
+        private final int wordsPerRow;
+        private final int lastIndex;
+        // Rachas abiertas de la banda actual, de las columnas y de cada diagonal (col - fila + N - 1 y fila + col).
+        private final int[] rows;
+        private final int[] columns;
+        private final int[] diagonals;
+        private final int[] antiDiagonals;
+        private int found;
+
+        private Sweep(PackedGenome genome, int bandRows) {
+            int size = genome.size();
+            this.words = genome.words();
+            this.wordsPerRow = genome.wordsPerRow();
+            this.lastIndex = size - 1;
+            this.rows = new int[bandRows];
+            this.columns = new int[size];
+            this.diagonals = new int[2 * size - 1];
+            this.antiDiagonals = new int[2 * size - 1];
+        }
+
+        private void startBand() {
+            Arrays.fill(rows, 0);
+        }
+
+        /**
+         * Filas, columnas y diagonales del bloque; el bloque de la izquierda ya pasó.
+         *
+         * @return true apenas el conteo llega al mínimo
+         */
+        private boolean visitTile(int bandStart, int bandEnd, int tileStart, int tileEnd) {
+            int firstWord = tileStart / PackedGenome.BASES_PER_WORD;
+            int row = bandStart;
+            while (row < bandEnd) {
+                int horizontal = rows[row - bandStart];
+                int offset = row * wordsPerRow + firstWord;
+                int col = tileStart;
+                while (col < tileEnd) {
+                    long word = words[offset++];
+                    int wordEnd = Math.min(tileEnd, col + PackedGenome.BASES_PER_WORD);
+                    while (col < wordEnd) {
+                        int base = (int) (word & PackedGenome.BASE_MASK);
+                        word >>>= PackedGenome.BITS_PER_BASE;
+                        horizontal = advance(horizontal, base);
+                        columns[col] = advance(columns[col], base);
+                        diagonals[col - row + lastIndex] = advance(diagonals[col - row + lastIndex], base);
+                        col++;
+                    }
+                }
+                rows[row - bandStart] = horizontal;
+                // Revisar por fila y no por celda deja el bucle interno sin otra rama que la de las rachas.
+                if (found >= REQUIRED_MATCHES) {
+                    return true;
+                }
+                row++;
+            }
+            return false;
+        }
+
+        /**
+         * Antidiagonales del bloque; el bloque de la derecha ya pasó, así que cada celda llega después de su
+         * predecesora (f - 1, c + 1) aunque esta quede del otro lado del borde.
+         *
+         * @return true apenas el conteo llega al mínimo
+         */
+        private boolean visitAntiDiagonals(int bandStart, int bandEnd, int tileStart, int tileEnd) {
+            int firstWord = tileStart / PackedGenome.BASES_PER_WORD;
+            int row = bandStart;
+            while (row < bandEnd) {
+                int offset = row * wordsPerRow + firstWord;
+                int col = tileStart;
+                while (col < tileEnd) {
+                    long word = words[offset++];
+                    int wordEnd = Math.min(tileEnd, col + PackedGenome.BASES_PER_WORD);
+                    while (col < wordEnd) {
+                        int base = (int) (word & PackedGenome.BASE_MASK);
+                        word >>>= PackedGenome.BITS_PER_BASE;
+                        antiDiagonals[row + col] = advance(antiDiagonals[row + col], base);
+                        col++;
+                    }
+                }
+                if (found >= REQUIRED_MATCHES) {
+                    return true;
+                }
+                row++;
+            }
+            return false;
+        }
+
+        // Misma semántica que el resto de los motores: al completar WINDOW se cuenta y la racha vuelve a 1.
+        private int advance(int state, int base) {
+            int next = (state & (int) PackedGenome.BASE_MASK) == base ? state + STREAK_UNIT : STREAK_UNIT | base;
+            if (next >= MATCHED) {
+                found++;
+                return STREAK_UNIT | base;
+            }
+            return next;
+        }
+    }
+}
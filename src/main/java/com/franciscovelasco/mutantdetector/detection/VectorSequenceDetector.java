@@ -0,0 +1,118 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Detector sobre la Vector API (jdk.incubator.vector) que compara 16 a 64 bases por instrucción según el host.
+ * Desempaqueta dos filas a la vez y mantiene un contador 0..2 por columna y por diagonal, igual que SWAR.
+ * Solo se instancia mediante {@link VectorSupport} cuando el módulo incubador está habilitado.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class VectorSequenceDetector implements SequenceDetector {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final byte LAST_STATE = 2;
+
+    @Override
+    public boolean detect(PackedGenome genome) {
+        int size = genome.size();
+        // Un carril extra al final evita leer fuera de rango al comparar con la base vecina.
+        byte[] previous = new byte[size + 1];
+        byte[] current = new byte[size + 1];
+        byte[] columns = new byte[size];
+        byte[] diagonals = new byte[2 * size];
+        byte[] antiDiagonals = new byte[2 * size];
+        int found = 0;
+        int row = 0;
+        while (row < size && found < REQUIRED_MATCHES) {
+            unpackRow(genome, row, current);
+            found += countRowRuns(current, size);
+            if (row > 0 && found < REQUIRED_MATCHES) {
+                found += advance(previous, 0, current, 0, columns, 0, size);
+                // Diagonal (r-1, c-1) -> (r, c): el id c - r + size - 1 es contiguo para toda la fila.
+                found += advance(previous, 0, current, 1, diagonals, size - row, size - 1);
+                // Antidiagonal (r-1, c+1) -> (r, c): el id c + r también es contiguo.
+                found += advance(previous, 1, current, 0, antiDiagonals, row, size - 1);
+            }
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+            row++;
+        }
+        return found >= REQUIRED_MATCHES;
+    }
+
+    private static void unpackRow(PackedGenome genome, int row, byte[] target) {
+        long[] words = genome.words();
+        int offset = row * genome.wordsPerRow();
+        int col = 0;
+        while (col < genome.size()) {
+            long word = words[offset + col / PackedGenome.BASES_PER_WORD];
+            target[col] = (byte) (word >>> ((col % PackedGenome.BASES_PER_WORD) * PackedGenome.BITS_PER_BASE)
+                    & PackedGenome.BASE_MASK);
+            col++;
+        }
+    }
+
+    private static int countRowRuns(byte[] line, int size) {
+        int found = 0;
+        int open = 0;
+        int limit = size - 1;
+        int col = 0;
+        while (col < limit) {
+            VectorMask<Byte> inRange = SPECIES.indexInRange(col, limit);
+            ByteVector left = ByteVector.fromArray(SPECIES, line, col, inRange);
+            ByteVector right = ByteVector.fromArray(SPECIES, line, col + 1, inRange);
+            long equal = left.eq(right).and(inRange).toLong();
+            int lanes = Math.min(SPECIES.length(), limit - col);
+            int position = 0;
+            while (position < lanes) {
+                long rest = equal >>> position;
+                if (rest == 0) {
+                    found += open / 3;
+                    open = 0;
+                    break;
+                }
+                int gap = Long.numberOfTrailingZeros(rest);
+                if (gap > 0) {
+                    found += open / 3;
+                    open = 0;
+                    position += gap;
+                    rest >>>= gap;
+                }
+                int ones = Long.numberOfTrailingZeros(~rest);
+                open += ones;
+                position += ones;
+            }
+            col += SPECIES.length();
+        }
+        // Una racha de m comparaciones iguales aporta m / 3 secuencias (la racha vuelve a 1 al completar cuatro).
+        return found + open / 3;
+    }
+
+    // Avanza los contadores de count carriles comparando previous[upperFrom + i] con current[lowerFrom + i].
+    private static int advance(byte[] previous, int upperFrom, byte[] current, int lowerFrom,
+                               byte[] state, int stateFrom, int count) {
+        int found = 0;
+        int lane = 0;
+        while (lane < count) {
+            VectorMask<Byte> inRange = SPECIES.indexInRange(lane, count);
+            ByteVector upper = ByteVector.fromArray(SPECIES, previous, upperFrom + lane, inRange);
+            ByteVector lower = ByteVector.fromArray(SPECIES, current, lowerFrom + lane, inRange);
+            ByteVector counters = ByteVector.fromArray(SPECIES, state, stateFrom + lane, inRange);
+            VectorMask<Byte> equal = upper.eq(lower).and(inRange);
+            VectorMask<Byte> saturated = counters.eq(LAST_STATE);
+            found += equal.and(saturated).trueCount();
+            // Con igualdad el contador sube y al completar la secuencia vuelve a 0; sin igualdad se reinicia.
+            ByteVector next = counters.add((byte) 1)
+                    .blend((byte) 0, saturated)
+                    .blend((byte) 0, equal.not());
+            next.intoArray(state, stateFrom + lane, inRange);
+            lane += SPECIES.length();
+        }
+        return found;
+    }
+}
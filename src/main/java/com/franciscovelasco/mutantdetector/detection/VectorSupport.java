@@ -0,0 +1,40 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import java.util.Optional;
+
+/**
+ * Punto único para saber si la Vector API está disponible en la JVM actual.
+ * La clase vectorial se carga por reflexión para que su ausencia no rompa el arranque.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class VectorSupport {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_DETECTOR = "com.franciscovelasco.mutantdetector.detection.VectorSequenceDetector";
+
+    private VectorSupport() {
+    }
+
+    public static boolean isAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Crea el detector vectorial si la JVM se lanzó con {@code --add-modules jdk.incubator.vector}.
+     *
+     * @return el detector, o vacío cuando el módulo no está habilitado
+     */
+    public static Optional<SequenceDetector> createDetector() {
+        if (!isAvailable()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((SequenceDetector) Class.forName(VECTOR_DETECTOR)
+                    .getDeclaredConstructor()
+                    .newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+}
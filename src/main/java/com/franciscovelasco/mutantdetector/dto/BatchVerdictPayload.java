@@ -0,0 +1,33 @@
+package com.franciscovelasco.mutantdetector.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Línea NDJSON emitida por /mutant/batch para cada genoma del lote.
+ * Lleva hash y veredicto, o solo el error cuando el genoma no pasó la validación.
+ * El status es el que habría respondido POST /mutant/ para ese genoma: 200, 403 o 400.
+ *
+ * @param index posición del genoma dentro del lote recibido
+ * @param hash huella hexadecimal usada para deduplicar
+ * @param mutant true si es mutante
+ * @param status código HTTP equivalente para el genoma
+ * @param error motivo del rechazo, solo presente para genomas inválidos
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchVerdictPayload(
+        int index,
+        String hash,
+        Boolean mutant,
+        int status,
+        String error
+) {
+
+    public static BatchVerdictPayload verdict(int index, String hash, boolean mutant) {
+        return new BatchVerdictPayload(index, hash, mutant, mutant ? 200 : 403, null);
+    }
+
+    public static BatchVerdictPayload rejected(int index, String error) {
+        return new BatchVerdictPayload(index, null, null, 400, error);
+    }
+}
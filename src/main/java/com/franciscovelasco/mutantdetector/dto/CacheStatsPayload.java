@@ -0,0 +1,23 @@
+package com.franciscovelasco.mutantdetector.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO expuesto en /stats/cache con los contadores de la caché de veredictos.
+ *
+ * @param hits consultas resueltas sin ir a la base
+ * @param misses consultas que tuvieron que consultar la base
+ * @param evictions entradas desalojadas por tamaño o expiración
+ * @param hitRate proporción de aciertos sobre el total de consultas
+ * @param size cantidad aproximada de entradas vigentes
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record CacheStatsPayload(
+        long hits,
+        long misses,
+        long evictions,
+        @JsonProperty("hit_rate")
+        double hitRate,
+        long size
+) {
+}
@@ -0,0 +1,24 @@
+package com.franciscovelasco.mutantdetector.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Una cubeta de /stats/timeseries con los mismos campos que /stats.
+ *
+ * @param start inicio de la cubeta en hora local
+ * @param mutantCount ADN mutante registrado dentro de la cubeta
+ * @param humanCount ADN humano registrado dentro de la cubeta
+ * @param ratio división segura entre mutantes y humanos de la cubeta
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record TimeBucketPayload(
+        LocalDateTime start,
+        @JsonProperty("count_mutant_dna")
+        long mutantCount,
+        @JsonProperty("count_human_dna")
+        long humanCount,
+        double ratio
+) {
+}
@@ -0,0 +1,16 @@
+package com.franciscovelasco.mutantdetector.dto;
+
+import java.util.List;
+
+/**
+ * DTO expuesto en /stats/timeseries: las últimas cubetas de una resolución, de la más vieja a la actual.
+ *
+ * @param resolution ancho de cada cubeta: minute, hour o day
+ * @param buckets cubetas consecutivas, incluidas las vacías
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record TimeseriesPayload(
+        String resolution,
+        List<TimeBucketPayload> buckets
+) {
+}
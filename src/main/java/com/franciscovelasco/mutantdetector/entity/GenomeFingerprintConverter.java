@@ -0,0 +1,25 @@
+package com.franciscovelasco.mutantdetector.entity;
+
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda la huella de 128 bits como columna binaria de 16 bytes en lugar de 64 caracteres hexadecimales.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Converter
+public class GenomeFingerprintConverter implements AttributeConverter<GenomeFingerprint, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(GenomeFingerprint fingerprint) {
+        return fingerprint == null ? null : fingerprint.toBytes();
+    }
+
+    @Override
+    public GenomeFingerprint convertToEntityAttribute(byte[] column) {
+        // Las filas heredadas quedan en null hasta que el backfill recalcula su huella.
+        return column == null ? null : GenomeFingerprint.fromBytes(column);
+    }
+}
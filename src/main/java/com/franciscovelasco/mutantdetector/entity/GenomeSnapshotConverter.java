@@ -0,0 +1,121 @@
+package com.franciscovelasco.mutantdetector.entity;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Guarda la foto del genoma a 2 bits por base en lugar de filas de texto separadas por coma.
+ * Formato: 1 byte de codec, N como entero de 4 bytes y N filas de (N + 3) / 4 bytes (el mismo orden de bits
+ * que {@link PackedGenome}), opcionalmente comprimidas con Deflate.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Converter
+public class GenomeSnapshotConverter implements AttributeConverter<PackedGenome, byte[]> {
+
+    static final byte RAW = 0;
+    static final byte DEFLATE = 1;
+
+    // Por debajo de este N el encabezado de Deflate se come cualquier ahorro.
+    static final int DEFLATE_MIN_SIZE = 64;
+
+    private static final int HEADER_BYTES = 1 + Integer.BYTES;
+
+    @Override
+    public byte[] convertToDatabaseColumn(PackedGenome genome) {
+        if (genome == null) {
+            return null;
+        }
+        int size = genome.size();
+        int rowBytes = genome.bytesPerRow();
+        byte[] packed = new byte[HEADER_BYTES + size * rowBytes];
+        ByteBuffer.wrap(packed).put(RAW).putInt(size);
+        for (int row = 0; row < size; row++) {
+            genome.storeRow(row, packed, HEADER_BYTES + row * rowBytes);
+        }
+        return size < DEFLATE_MIN_SIZE ? packed : deflateIfSmaller(packed);
+    }
+
+    @Override
+    public PackedGenome convertToEntityAttribute(byte[] column) {
+        // Las filas heredadas quedan en null hasta que el backfill las convierte desde el texto.
+        if (column == null) {
+            return null;
+        }
+        int size = column.length < HEADER_BYTES ? 0 : ByteBuffer.wrap(column, 1, Integer.BYTES).getInt();
+        if (size <= 0) {
+            throw new IllegalStateException("Snapshot de genoma corrupto: encabezado inválido");
+        }
+        PackedGenome genome = new PackedGenome(size);
+        int rowBytes = genome.bytesPerRow();
+        byte[] rows = switch (column[0]) {
+            case RAW -> column;
+            case DEFLATE -> inflate(column, size * rowBytes);
+            default -> throw new IllegalStateException("Snapshot de genoma corrupto: codec " + column[0]);
+        };
+        int offset = column[0] == RAW ? HEADER_BYTES : 0;
+        if (rows.length - offset != size * rowBytes) {
+            throw new IllegalStateException("Snapshot de genoma corrupto: se esperaban " + size + " filas");
+        }
+        for (int row = 0; row < size; row++) {
+            if (!genome.loadRow(row, rows, offset + row * rowBytes)) {
+                throw new IllegalStateException("Snapshot de genoma corrupto: relleno distinto de cero");
+            }
+        }
+        return genome;
+    }
+
+    // El ADN aleatorio ya usa los 2 bits por base y casi no comprime; solo se paga Deflate cuando rinde.
+    private static byte[] deflateIfSmaller(byte[] packed) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(packed, HEADER_BYTES, packed.length - HEADER_BYTES);
+            deflater.finish();
+            byte[] compressed = new byte[packed.length];
+            System.arraycopy(packed, 0, compressed, 0, HEADER_BYTES);
+            compressed[0] = DEFLATE;
+            int length = HEADER_BYTES;
+            while (!deflater.finished() && length < compressed.length) {
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            return deflater.finished() && length < packed.length ? Arrays.copyOf(compressed, length) : packed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] column, int expected) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column, HEADER_BYTES, column.length - HEADER_BYTES);
+            byte[] rows = new byte[expected];
+            int length = 0;
+            while (length < expected && !inflater.finished()) {
+                int read = inflater.inflate(rows, length, expected - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            // Con el buffer lleno, una lectura extra confirma que el bloque termina justo ahí.
+            if (length == expected && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                length++;
+            }
+            if (length != expected || !inflater.finished()) {
+                throw new IllegalStateException("Snapshot de genoma corrupto: bloque comprimido incompleto");
+            }
+            return rows;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Snapshot de genoma corrupto: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.franciscovelasco.mutantdetector.entity;
 
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
 
 import java.time.LocalDateTime;
 
@@ -26,18 +36,31 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "dna_audit")
+// El índice (genome_hash, is_mutant) cubre la consulta de deduplicación: se responde sin leer la fila.
+@Table(name = "dna_audit", indexes = @Index(name = "idx_dna_audit_hash_verdict", columnList = "genome_hash, is_mutant"))
 public class MutantEntity {
 
+    // Con secuencia (y no IDENTITY) Hibernate reserva ids de a 50 y puede agrupar los INSERT en lotes JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dna_audit_seq")
+    @SequenceGenerator(name = "dna_audit_seq", sequenceName = "dna_audit_seq", allocationSize = 50)
     private Long id;
 
-    @Column(name = "genome_hash", nullable = false, unique = true, length = 64)
-    private String genomeHash;
+    // Admite null como la columna durante la migración (db/migration/genome-hash-128.sql): las filas heredadas no
+    // tienen huella hasta que corre genome.fingerprint.backfill. Las filas nuevas siempre la traen.
+    @Convert(converter = GenomeFingerprintConverter.class)
+    @Column(name = "genome_hash", unique = true, length = GenomeFingerprint.BYTES)
+    private GenomeFingerprint genomeHash;
 
-    @Column(name = "matrix_snapshot", nullable = false, length = 2048)
-    private String matrixSnapshot;
+    // Foto a 2 bits por base (ver GenomeSnapshotConverter): sin tope de N y cerca de 4 veces menos bytes que el texto.
+    // Inmutable para Hibernate: así no vuelve a codificar el genoma en cada chequeo de cambios.
+    // Perezosa (requiere el enhancement de build.gradle): solo las lecturas de auditoría pagan el BLOB.
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Mutability(Immutability.class)
+    @Convert(converter = GenomeSnapshotConverter.class)
+    @Column(name = "matrix_snapshot", nullable = false)
+    private PackedGenome matrixSnapshot;
 
     @Column(name = "is_mutant", nullable = false)
     private boolean mutant;
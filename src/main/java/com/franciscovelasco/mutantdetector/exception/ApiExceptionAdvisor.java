@@ -1,11 +1,14 @@
 package com.franciscovelasco.mutantdetector.exception;
 
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
@@ -18,15 +21,20 @@ import java.util.Map;
  * @author Francisco Velasco (Legajo 51141)
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ApiExceptionAdvisor {
 
+    private final AnalysisMetrics analysisMetrics;
+
     @ExceptionHandler(GenomeFormatException.class)
     public ResponseEntity<Map<String, Object>> handleGenomeFormat(GenomeFormatException ex) {
+        analysisMetrics.countRejection(true);
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
+        analysisMetrics.countRejection(false);
         Map<String, Object> payload = basicPayload(HttpStatus.BAD_REQUEST);
         Map<String, String> details = new HashMap<>();
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
@@ -36,6 +44,11 @@ public class ApiExceptionAdvisor {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(payload);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleParameter(MethodArgumentTypeMismatchException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Parámetro inválido: " + ex.getName());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
         ex.printStackTrace();
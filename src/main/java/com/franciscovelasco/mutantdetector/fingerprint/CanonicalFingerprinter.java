@@ -0,0 +1,95 @@
+package com.franciscovelasco.mutantdetector.fingerprint;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+
+/**
+ * Decorador que le da la misma huella a un genoma y a sus rotaciones y reflejos.
+ * El veredicto no cambia con las 8 simetrías del cuadrado: cada una solo intercambia filas con columnas o una
+ * familia de diagonales con la otra, y leer una línea al revés no altera sus secuencias. Por eso se huellea la
+ * transformación menor en orden fila por fila, y un genoma girado reutiliza el veredicto ya guardado.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class CanonicalFingerprinter implements GenomeFingerprinter {
+
+    // Las 8 simetrías; la posición (fila, columna) de la transformación lee la base de otra posición del original.
+    private static final int IDENTITY = 0;
+    private static final int ROTATE_90 = 1;
+    private static final int ROTATE_180 = 2;
+    private static final int ROTATE_270 = 3;
+    private static final int TRANSPOSE = 4;
+    private static final int MIRROR_COLUMNS = 5;
+    private static final int MIRROR_ROWS = 6;
+    private static final int ANTI_TRANSPOSE = 7;
+    private static final int SYMMETRIES = 8;
+
+    private final GenomeFingerprinter delegate;
+
+    public CanonicalFingerprinter(GenomeFingerprinter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public GenomeFingerprint fingerprint(PackedGenome genome) {
+        int symmetry = smallestSymmetry(genome);
+        // En el caso más común gana la orientación recibida y no hace falta copiar la matriz.
+        return delegate.fingerprint(symmetry == IDENTITY ? genome : transform(genome, symmetry));
+    }
+
+    /**
+     * Compara las 8 transformaciones base por base sin armarlas y descarta las que quedan por encima del mínimo.
+     * Casi siempre queda una sola en las primeras bases; solo una matriz simétrica obliga a recorrerla entera.
+     */
+    private static int smallestSymmetry(PackedGenome genome) {
+        int size = genome.size();
+        int[] candidates = {IDENTITY, ROTATE_90, ROTATE_180, ROTATE_270, TRANSPOSE, MIRROR_COLUMNS, MIRROR_ROWS,
+                ANTI_TRANSPOSE};
+        int remaining = SYMMETRIES;
+        int row = 0;
+        while (row < size && remaining > 1) {
+            int col = 0;
+            while (col < size && remaining > 1) {
+                int smallest = (int) PackedGenome.BASE_MASK;
+                for (int index = 0; index < remaining; index++) {
+                    smallest = Math.min(smallest, baseAt(genome, candidates[index], row, col));
+                }
+                int kept = 0;
+                for (int index = 0; index < remaining; index++) {
+                    if (baseAt(genome, candidates[index], row, col) == smallest) {
+                        candidates[kept++] = candidates[index];
+                    }
+                }
+                remaining = kept;
+                col++;
+            }
+            row++;
+        }
+        // Si empatan hasta el final las transformaciones son iguales y cualquiera da la misma huella.
+        return candidates[0];
+    }
+
+    private static PackedGenome transform(PackedGenome genome, int symmetry) {
+        int size = genome.size();
+        PackedGenome canonical = new PackedGenome(size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                canonical.setBase(row, col, baseAt(genome, symmetry, row, col));
+            }
+        }
+        return canonical;
+    }
+
+    private static int baseAt(PackedGenome genome, int symmetry, int row, int col) {
+        int last = genome.size() - 1;
+        return switch (symmetry) {
+            case IDENTITY -> genome.baseAt(row, col);
+            case ROTATE_90 -> genome.baseAt(last - col, row);
+            case ROTATE_180 -> genome.baseAt(last - row, last - col);
+            case ROTATE_270 -> genome.baseAt(col, last - row);
+            case TRANSPOSE -> genome.baseAt(col, row);
+            case MIRROR_COLUMNS -> genome.baseAt(row, last - col);
+            case MIRROR_ROWS -> genome.baseAt(last - row, col);
+            default -> genome.baseAt(last - col, last - row);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.franciscovelasco.mutantdetector.fingerprint;
+
+/**
+ * Algoritmos de huella disponibles, seleccionables con {@code genome.fingerprint.algorithm}.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public enum FingerprintAlgorithm {
+    MURMUR3,
+    SHA256;
+
+    public static FingerprintAlgorithm from(String value) {
+        return valueOf(value.trim().toUpperCase().replace("-", ""));
+    }
+
+    public GenomeFingerprinter create() {
+        return switch (this) {
+            case MURMUR3 -> new Murmur3Fingerprinter();
+            case SHA256 -> new Sha256Fingerprinter();
+        };
+    }
+}
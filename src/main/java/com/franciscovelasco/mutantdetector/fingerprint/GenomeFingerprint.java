@@ -0,0 +1,55 @@
+package com.franciscovelasco.mutantdetector.fingerprint;
+
+import java.util.HexFormat;
+
+/**
+ * Huella de 128 bits de un genoma, guardada como dos {@code long} para comparar y hashear sin objetos extra.
+ *
+ * @param high 64 bits más significativos
+ * @param low 64 bits menos significativos
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record GenomeFingerprint(long high, long low) {
+
+    public static final int BYTES = 2 * Long.BYTES;
+
+    /**
+     * Reconstruye la huella desde la columna binaria de 16 bytes.
+     *
+     * @param bytes valor big-endian leído de la base
+     * @return la huella equivalente
+     */
+    public static GenomeFingerprint fromBytes(byte[] bytes) {
+        if (bytes.length != BYTES) {
+            throw new IllegalArgumentException("Se esperaban " + BYTES + " bytes y llegaron " + bytes.length);
+        }
+        return new GenomeFingerprint(readLong(bytes, 0), readLong(bytes, Long.BYTES));
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[BYTES];
+        writeLong(bytes, 0, high);
+        writeLong(bytes, Long.BYTES, low);
+        return bytes;
+    }
+
+    public String toHex() {
+        HexFormat hex = HexFormat.of();
+        return hex.toHexDigits(high) + hex.toHexDigits(low);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int index = 0; index < Long.BYTES; index++) {
+            value = (value << Byte.SIZE) | (bytes[offset + index] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int index = Long.BYTES - 1; index >= 0; index--) {
+            bytes[offset + index] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+    }
+}
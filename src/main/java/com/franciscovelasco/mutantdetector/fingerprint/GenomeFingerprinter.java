@@ -0,0 +1,18 @@
+package com.franciscovelasco.mutantdetector.fingerprint;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+
+/**
+ * Estrategia que calcula la huella usada para deduplicar análisis.
+ * Trabaja sobre el buffer empaquetado, que es cuatro veces más chico que las filas en texto.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public interface GenomeFingerprinter {
+
+    /**
+     * @param genome matriz empaquetada; los bits de relleno de cada fila están en cero
+     * @return huella de 128 bits
+     */
+    GenomeFingerprint fingerprint(PackedGenome genome);
+}
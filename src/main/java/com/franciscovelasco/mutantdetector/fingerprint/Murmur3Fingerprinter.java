@@ -0,0 +1,71 @@
+package com.franciscovelasco.mutantdetector.fingerprint;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+
+/**
+ * MurmurHash3 x64 de 128 bits aplicado directamente sobre las palabras empaquetadas.
+ * No es criptográfico, pero para deduplicar alcanza y evita MessageDigest, copias y formateo por request.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class Murmur3Fingerprinter implements GenomeFingerprinter {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    @Override
+    public GenomeFingerprint fingerprint(PackedGenome genome) {
+        long[] words = genome.words();
+        // La dimensión actúa de semilla para que matrices de distinto N con el mismo buffer no colisionen.
+        long h1 = genome.size();
+        long h2 = genome.size();
+        int index = 0;
+        while (index + 1 < words.length) {
+            long k1 = words[index];
+            long k2 = words[index + 1];
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+            index += 2;
+        }
+        if (index < words.length) {
+            h1 ^= mixK1(words[index]);
+        }
+        long length = (long) words.length * Long.BYTES;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = finalMix(h1);
+        h2 = finalMix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new GenomeFingerprint(h1, h2);
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long finalMix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.franciscovelasco.mutantdetector.fingerprint;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 sobre la dimensión y las palabras empaquetadas, truncado a 128 bits para compartir columna.
+ * Queda como opción para quien prefiera resistencia criptográfica por sobre velocidad.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class Sha256Fingerprinter implements GenomeFingerprinter {
+
+    @Override
+    public GenomeFingerprint fingerprint(PackedGenome genome) {
+        long[] words = genome.words();
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + words.length * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        payload.putInt(genome.size());
+        payload.asLongBuffer().put(words);
+        ByteBuffer digest = ByteBuffer.wrap(newDigest().digest(payload.array()));
+        return new GenomeFingerprint(digest.getLong(), digest.getLong());
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM actual", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.detection.ExitDirection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medidores de cada etapa del análisis, publicados en /actuator/prometheus.
+ * Todos se crean al arrancar y se guardan en campos o arreglos: registrar una medición es leer
+ * System.nanoTime y sumar, sin búsquedas en el registro ni armado de etiquetas por request.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Component
+public class AnalysisMetrics {
+
+    /**
+     * Etapas del camino de POST /mutant/ medidas con un mismo timer etiquetado por {@code stage}.
+     */
+    public enum Stage {
+        VALIDATION,
+        HASHING,
+        LOOKUP,
+        PERSISTENCE
+    }
+
+    /**
+     * Dónde se encontró un genoma ya analizado.
+     */
+    public enum DuplicateSource {
+        CACHE,
+        PENDING,
+        DATABASE,
+        IN_FLIGHT
+    }
+
+    /**
+     * Resultado de consultar el filtro de Bloom antes de buscar en el registro.
+     */
+    public enum FilterOutcome {
+        // "Ausente con certeza": la búsqueda no se hizo.
+        SKIPPED,
+        // "Puede estar" y estaba.
+        FOUND,
+        // "Puede estar" pero la búsqueda no encontró nada.
+        FALSE_POSITIVE
+    }
+
+    // Límite superior (inclusive) de cada rango de tamaño; el último rango no tiene tope.
+    private static final int[] SIZE_LIMITS = {8, 32, 256, 2048};
+    private static final String[] SIZE_BUCKETS = {"4-8", "9-32", "33-256", "257-2048", "2049+"};
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Timer[][] detection = new Timer[SIZE_BUCKETS.length][ExitDirection.values().length];
+    private final Counter mutants;
+    private final Counter humans;
+    private final Map<DuplicateSource, Counter> duplicates = new EnumMap<>(DuplicateSource.class);
+    private final Map<FilterOutcome, Counter> filterOutcomes = new EnumMap<>(FilterOutcome.class);
+    private final Counter formatRejections;
+    private final Counter validationRejections;
+
+    public AnalysisMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("genome.analysis.stage")
+                    .description("Duración de cada etapa de POST /mutant/")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (int bucket = 0; bucket < SIZE_BUCKETS.length; bucket++) {
+            for (ExitDirection exit : ExitDirection.values()) {
+                detection[bucket][exit.ordinal()] = Timer.builder("genome.detection")
+                        .description("Duración de la búsqueda de secuencias por tamaño y dirección de salida")
+                        .tag("size", SIZE_BUCKETS[bucket])
+                        .tag("exit", exit.tag())
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+        mutants = verdictCounter(registry, "mutant");
+        humans = verdictCounter(registry, "human");
+        for (DuplicateSource source : DuplicateSource.values()) {
+            duplicates.put(source, Counter.builder("genome.duplicates")
+                    .description("Genomas ya analizados resueltos sin volver a detectar")
+                    .tag("source", source.name().toLowerCase())
+                    .register(registry));
+        }
+        for (FilterOutcome outcome : FilterOutcome.values()) {
+            filterOutcomes.put(outcome, Counter.builder("genome.bloom.lookups")
+                    .description("Búsquedas en el registro evitadas o confirmadas por el filtro de Bloom")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry));
+        }
+        formatRejections = rejectionCounter(registry, "format");
+        validationRejections = rejectionCounter(registry, "validation");
+    }
+
+    public void recordStage(Stage stage, long nanos) {
+        stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDetection(int size, ExitDirection exit, long nanos) {
+        detection[sizeBucket(size)][exit.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countVerdict(boolean mutant) {
+        (mutant ? mutants : humans).increment();
+    }
+
+    public void countDuplicate(DuplicateSource source) {
+        duplicates.get(source).increment();
+    }
+
+    public void countFilter(FilterOutcome outcome, long lookups) {
+        filterOutcomes.get(outcome).increment(lookups);
+    }
+
+    /**
+     * @param malformed true para {@code GenomeFormatException}, false para errores de Bean Validation
+     */
+    public void countRejection(boolean malformed) {
+        (malformed ? formatRejections : validationRejections).increment();
+    }
+
+    private static int sizeBucket(int size) {
+        int bucket = 0;
+        while (bucket < SIZE_LIMITS.length && size > SIZE_LIMITS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static Counter verdictCounter(MeterRegistry registry, String result) {
+        return Counter.builder("genome.verdicts")
+                .description("Veredictos emitidos, incluidos los resueltos desde caché o base")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("genome.rejections")
+                .description("Genomas rechazados antes de analizarse")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
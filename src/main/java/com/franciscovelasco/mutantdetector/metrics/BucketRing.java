@@ -0,0 +1,85 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Anillo de cubetas de ancho fijo con los conteos de mutantes y humanos de cada una.
+ * La cubeta de un instante es {@code segundos / ancho} y su ranura ese número módulo el largo del anillo;
+ * la ranura recuerda a qué cubeta pertenece, así que al dar la vuelta se reinicia en lugar de acumular.
+ * Sumar es un incremento atómico; solo el primer evento de una cubeta nueva toma el lock para reiniciarla.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+final class BucketRing {
+
+    private static final long UNUSED = Long.MIN_VALUE;
+
+    private final long widthSeconds;
+    private final int length;
+    private final AtomicLongArray owners;
+    private final AtomicLongArray mutants;
+    private final AtomicLongArray humans;
+
+    BucketRing(long widthSeconds, int length) {
+        this.widthSeconds = widthSeconds;
+        this.length = length;
+        this.owners = new AtomicLongArray(length);
+        this.mutants = new AtomicLongArray(length);
+        this.humans = new AtomicLongArray(length);
+        for (int slot = 0; slot < length; slot++) {
+            owners.set(slot, UNUSED);
+        }
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * @param epochSecond instante del genoma en segundos de reloj local
+     * @param delta       1 al registrar; -1 al revertir un registro que resultó duplicado
+     */
+    void add(long epochSecond, boolean mutant, long delta) {
+        long bucket = Math.floorDiv(epochSecond, widthSeconds);
+        int slot = (int) Math.floorMod(bucket, length);
+        long owner = owners.get(slot);
+        // Un evento de una cubeta que ya salió de la ventana se descarta; una reversión nunca abre cubeta.
+        if (owner != bucket && (owner > bucket || delta < 0 || !claim(slot, bucket))) {
+            return;
+        }
+        (mutant ? mutants : humans).addAndGet(slot, delta);
+    }
+
+    /**
+     * @param nowSecond instante actual en segundos de reloj local
+     * @param count     cubetas pedidas, como mucho {@link #length()}
+     * @return las últimas {@code count} cubetas hasta la actual inclusive, de la más vieja a la más nueva
+     */
+    List<VerdictTimeline.Bucket> last(long nowSecond, int count) {
+        long newest = Math.floorDiv(nowSecond, widthSeconds);
+        List<VerdictTimeline.Bucket> buckets = new ArrayList<>(count);
+        for (long bucket = newest - count + 1; bucket <= newest; bucket++) {
+            int slot = (int) Math.floorMod(bucket, length);
+            boolean current = owners.get(slot) == bucket;
+            buckets.add(new VerdictTimeline.Bucket(
+                    LocalDateTime.ofEpochSecond(bucket * widthSeconds, 0, ZoneOffset.UTC),
+                    current ? mutants.get(slot) : 0,
+                    current ? humans.get(slot) : 0));
+        }
+        return buckets;
+    }
+
+    // Los contadores se ponen en cero antes de publicar el dueño: quien ve la cubeta nueva ya suma sobre cero.
+    private synchronized boolean claim(int slot, long bucket) {
+        if (owners.get(slot) < bucket) {
+            mutants.set(slot, 0);
+            humans.set(slot, 0);
+            owners.set(slot, bucket);
+        }
+        return owners.get(slot) == bucket;
+    }
+}
@@ -0,0 +1,35 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tarea opcional que compara periódicamente los contadores de /stats con la tabla y corrige la deriva.
+ * Las filas aceptadas que todavía esperan en la cola de escritura también cuentan como registradas; la lectura
+ * se hace con la escritura diferida en pausa para que un lote confirmado en el medio no cuente dos veces.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "genome.stats.reconcile.enabled", havingValue = "true")
+public class StatsReconciler {
+
+    private final MutantRegistry mutantRegistry;
+    private final AuditWriteBehind auditWriteBehind;
+    private final VerdictCounters verdictCounters;
+
+    @Scheduled(initialDelayString = "${genome.stats.reconcile.interval:PT5M}",
+            fixedDelayString = "${genome.stats.reconcile.interval:PT5M}")
+    public void reconcile() {
+        auditWriteBehind.runExclusive(() -> verdictCounters.reconcile(
+                mutantRegistry.countByMutantTrue() + auditWriteBehind.pendingCount(true),
+                mutantRegistry.countByMutantFalse() + auditWriteBehind.pendingCount(false)));
+    }
+}
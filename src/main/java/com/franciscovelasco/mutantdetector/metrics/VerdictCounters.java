@@ -0,0 +1,66 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria de mutantes y humanos registrados, para responder /stats sin consultar la base.
+ * Se siembran con un COUNT al arrancar y luego solo suman los genomas nuevos aceptados para persistir.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerdictCounters {
+
+    private final MutantRegistry mutantRegistry;
+    // LongAdder reparte los incrementos en celdas por hilo: los POST concurrentes no compiten por una línea de caché.
+    private final LongAdder mutants = new LongAdder();
+    private final LongAdder humans = new LongAdder();
+
+    @PostConstruct
+    void seed() {
+        reconcile(mutantRegistry.countByMutantTrue(), mutantRegistry.countByMutantFalse());
+    }
+
+    public void record(boolean mutant) {
+        (mutant ? mutants : humans).increment();
+    }
+
+    /**
+     * Revierte un {@link #record(boolean)} cuando la escritura descubre que el genoma ya estaba registrado.
+     */
+    public void discard(boolean mutant) {
+        (mutant ? mutants : humans).decrement();
+    }
+
+    public long mutants() {
+        return mutants.sum();
+    }
+
+    public long humans() {
+        return humans.sum();
+    }
+
+    /**
+     * Ajusta los contadores a los valores esperados sumando la diferencia, sin perder incrementos concurrentes.
+     *
+     * @param expectedMutants mutantes según la fuente de verdad
+     * @param expectedHumans  humanos según la fuente de verdad
+     */
+    public void reconcile(long expectedMutants, long expectedHumans) {
+        long mutantDrift = expectedMutants - mutants.sum();
+        long humanDrift = expectedHumans - humans.sum();
+        if (mutantDrift != 0 || humanDrift != 0) {
+            log.info("Ajustando contadores de /stats: mutantes {}, humanos {}", mutantDrift, humanDrift);
+            mutants.add(mutantDrift);
+            humans.add(humanDrift);
+        }
+    }
+}
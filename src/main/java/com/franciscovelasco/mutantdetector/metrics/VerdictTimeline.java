@@ -0,0 +1,140 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serie temporal de genomas registrados por minuto, hora y día para /stats/timeseries.
+ * Cada genoma aceptado suma en las tres resoluciones a la vez (el roll-up se hace al escribir), así que una consulta
+ * solo lee las cubetas pedidas y nunca recorre dna_audit. Al arrancar se reconstruye desde {@code createdAt}.
+ * Las cubetas siguen el reloj local, el mismo con el que se graba {@code createdAt}.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Component
+public class VerdictTimeline {
+
+    /**
+     * Ancho de cubeta de la serie.
+     */
+    public enum Resolution {
+        MINUTE(60),
+        HOUR(3600),
+        DAY(86400);
+
+        private final long seconds;
+
+        Resolution(long seconds) {
+            this.seconds = seconds;
+        }
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+
+        /**
+         * @param tag {@code minute}, {@code hour} o {@code day}
+         */
+        public static Resolution fromTag(String tag) {
+            for (Resolution resolution : values()) {
+                if (resolution.tag().equalsIgnoreCase(tag.trim())) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("Resolución desconocida: " + tag + " (minute, hour o day)");
+        }
+    }
+
+    /**
+     * Conteos de una cubeta.
+     *
+     * @param start inicio de la cubeta en hora local
+     */
+    public record Bucket(LocalDateTime start, long mutants, long humans) {
+    }
+
+    private final MutantRegistry mutantRegistry;
+    private final Clock clock;
+    private final BucketRing[] rings = new BucketRing[Resolution.values().length];
+
+    @Autowired
+    public VerdictTimeline(MutantRegistry mutantRegistry,
+                           @Value("${genome.stats.timeseries.minutes:1440}") int minutes,
+                           @Value("${genome.stats.timeseries.hours:720}") int hours,
+                           @Value("${genome.stats.timeseries.days:365}") int days) {
+        this(mutantRegistry, minutes, hours, days, Clock.systemDefaultZone());
+    }
+
+    public VerdictTimeline(MutantRegistry mutantRegistry, int minutes, int hours, int days, Clock clock) {
+        this.mutantRegistry = mutantRegistry;
+        this.clock = clock;
+        rings[Resolution.MINUTE.ordinal()] = new BucketRing(Resolution.MINUTE.seconds, minutes);
+        rings[Resolution.HOUR.ordinal()] = new BucketRing(Resolution.HOUR.seconds, hours);
+        rings[Resolution.DAY.ordinal()] = new BucketRing(Resolution.DAY.seconds, days);
+    }
+
+    /**
+     * Recorre fecha y veredicto de lo registrado dentro de la ventana diaria, sin cargar snapshots.
+     */
+    @PostConstruct
+    void rebuild() {
+        long started = System.nanoTime();
+        int days = rings[Resolution.DAY.ordinal()].length();
+        LocalDateTime since = LocalDateTime.now(clock).truncatedTo(ChronoUnit.DAYS).minusDays(days - 1L);
+        long[] rows = new long[1];
+        mutantRegistry.forEachVerdictSince(since, verdict -> {
+            record(verdict.createdAt(), verdict.mutant());
+            rows[0]++;
+        });
+        log.info("Serie temporal de /stats reconstruida con {} genomas desde {} en {} ms", rows[0], since,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    public void record(LocalDateTime createdAt, boolean mutant) {
+        add(createdAt, mutant, 1);
+    }
+
+    /**
+     * Revierte un {@link #record(LocalDateTime, boolean)} cuando la escritura descubre que el genoma ya estaba.
+     */
+    public void discard(LocalDateTime createdAt, boolean mutant) {
+        add(createdAt, mutant, -1);
+    }
+
+    public int capacity(Resolution resolution) {
+        return rings[resolution.ordinal()].length();
+    }
+
+    /**
+     * @param count cubetas pedidas; se acota a la capacidad de la resolución
+     * @return las últimas cubetas hasta la actual inclusive, de la más vieja a la más nueva
+     */
+    public List<Bucket> lastBuckets(Resolution resolution, int count) {
+        BucketRing ring = rings[resolution.ordinal()];
+        int bounded = Math.max(1, Math.min(count, ring.length()));
+        return ring.last(LocalDateTime.now(clock).toEpochSecond(ZoneOffset.UTC), bounded);
+    }
+
+    private void add(LocalDateTime createdAt, boolean mutant, long delta) {
+        // Las filas heredadas sin fecha no tienen cubeta.
+        if (createdAt == null) {
+            return;
+        }
+        long epochSecond = createdAt.toEpochSecond(ZoneOffset.UTC);
+        for (BucketRing ring : rings) {
+            ring.add(epochSecond, mutant, delta);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Consultas Spring Data sobre dna_audit. El resto de la aplicación las usa a través de {@link MutantRegistry};
+ * solo los backfills de migración, que son propios de la base relacional, las consumen directo.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public interface AuditJpaRepository extends JpaRepository<MutantEntity, Long> {
+
+    Optional<MutantEntity> findByGenomeHash(GenomeFingerprint genomeHash);
+
+    @Query("select e.mutant from MutantEntity e where e.genomeHash = :genomeHash")
+    Optional<Boolean> findVerdictByGenomeHash(@Param("genomeHash") GenomeFingerprint genomeHash);
+
+    @Query("select new com.franciscovelasco.mutantdetector.repository.StoredVerdict(e.genomeHash, e.mutant) "
+            + "from MutantEntity e where e.genomeHash in :genomeHashes")
+    List<StoredVerdict> findVerdictsByGenomeHashIn(@Param("genomeHashes") Collection<GenomeFingerprint> genomeHashes);
+
+    // Cursor de solo lectura: las filas se proyectan y se descartan a medida que llegan, sin pasar por el contexto.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.franciscovelasco.mutantdetector.repository.TimedVerdict(e.createdAt, e.mutant) "
+            + "from MutantEntity e where e.createdAt >= :since")
+    Stream<TimedVerdict> streamVerdictsSince(@Param("since") LocalDateTime since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.genomeHash from MutantEntity e where e.genomeHash is not null")
+    Stream<GenomeFingerprint> streamGenomeHashes();
+
+    List<MutantEntity> findTop500ByIdGreaterThanOrderByIdAsc(long id);
+
+    List<MutantEntity> findTop500ByGenomeHashIsNullAndIdGreaterThanOrderByIdAsc(long id);
+
+    long countByMutantTrue();
+
+    long countByMutantFalse();
+}
@@ -0,0 +1,307 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Escritura diferida de dna_audit: el request devuelve el veredicto y las filas se insertan por lotes JDBC.
+ * La cola es acotada; si se llena, el productor espera un momento y luego inserta él mismo (backpressure).
+ * Un lote que falla por otra causa que un duplicado se reintenta con espera creciente; si se agotan los intentos
+ * sus filas se descartan, se descuentan de /stats y se suman a {@code genome.audit.dropped}.
+ * Lo que llega después de {@link #stop()} ya no se encola: se inserta en el hilo del request.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Component
+public class AuditWriteBehind {
+
+    private static final long POLL_MILLIS = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private final MutantRegistry mutantRegistry;
+    private final VerdictCounters verdictCounters;
+    private final VerdictTimeline verdictTimeline;
+    private final ThreadFactory writerThreadFactory;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<MutantEntity> queue;
+    // Veredictos aceptados que todavía no llegaron a la base, para deduplicar y para /stats.
+    private final Map<GenomeFingerprint, Boolean> pending = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    // Aceptar un genoma y confirmar un lote toman la parte compartida; runExclusive toma la exclusiva para que una
+    // fila no aparezca a la vez en la tabla y en pending (o en ninguna) mientras alguien las suma.
+    private final ReadWriteLock backlogLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    // A diferencia de running, distingue "todavía no arrancó" (se encola) de "ya se vació la cola" (inserción directa).
+    private volatile boolean stopped;
+    private Thread flusher;
+
+    public AuditWriteBehind(MutantRegistry mutantRegistry,
+                            VerdictCounters verdictCounters,
+                            VerdictTimeline verdictTimeline,
+                            ThreadFactory auditWriterThreadFactory,
+                            @Value("${genome.audit.write-behind.enabled:true}") boolean enabled,
+                            @Value("${genome.audit.write-behind.capacity:10000}") int capacity,
+                            @Value("${genome.audit.write-behind.batch-size:50}") int batchSize,
+                            @Value("${genome.audit.write-behind.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        this.mutantRegistry = mutantRegistry;
+        this.verdictCounters = verdictCounters;
+        this.verdictTimeline = verdictTimeline;
+        this.writerThreadFactory = auditWriterThreadFactory;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = writerThreadFactory.newThread(this::drainLoop);
+        flusher.start();
+    }
+
+    /**
+     * Encola la fila para inserción diferida; si la cola sigue llena tras la espera se inserta en el hilo actual.
+     * Cada genoma aceptado se suma a los contadores y a la serie temporal de /stats una sola vez.
+     *
+     * @param entity análisis nuevo, todavía sin id
+     */
+    public void submit(MutantEntity entity) {
+        if (!accept(entity)) {
+            // Otro request ya encoló el mismo genoma.
+            return;
+        }
+        if (!enabled || stopped) {
+            flush(List.of(entity));
+            return;
+        }
+        try {
+            if (!queue.offer(entity, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                flush(List.of(entity));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flush(List.of(entity));
+            return;
+        }
+        // stop() pudo vaciar la cola entre el chequeo y el offer: si la fila sigue ahí, nadie más la va a insertar.
+        if (stopped && queue.remove(entity)) {
+            flush(List.of(entity));
+        }
+    }
+
+    /**
+     * Inserta en el hilo actual y en una sola transacción los genomas de un lote que no estén ya encolados.
+     *
+     * @param entities análisis nuevos, todavía sin id
+     */
+    public void persistAll(List<MutantEntity> entities) {
+        List<MutantEntity> accepted = new ArrayList<>(entities.size());
+        for (MutantEntity entity : entities) {
+            if (accept(entity)) {
+                accepted.add(entity);
+            }
+        }
+        if (!accepted.isEmpty()) {
+            flush(accepted);
+        }
+    }
+
+    /**
+     * @param genomeHash huella a buscar entre las filas aceptadas y no insertadas
+     * @return el veredicto pendiente, o null si no está en la cola
+     */
+    public Boolean pendingVerdict(GenomeFingerprint genomeHash) {
+        return pending.get(genomeHash);
+    }
+
+    public long pendingCount(boolean mutant) {
+        return pending.values().stream().filter(value -> value == mutant).count();
+    }
+
+    /**
+     * Ejecuta la acción sin que en el medio se acepte un genoma ni se confirme un lote, de modo que una lectura de
+     * la tabla más {@link #pendingCount(boolean)} cuente cada fila exactamente una vez. Bloquea las escrituras
+     * mientras dura: pensado para lecturas cortas y poco frecuentes como la reconciliación de /stats.
+     *
+     * @param action lectura que combina la tabla con lo pendiente
+     */
+    public void runExclusive(Runnable action) {
+        backlogLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            backlogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return filas aceptadas que no se pudieron insertar tras agotar los reintentos
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("genome.audit.dropped", dropped, LongAdder::sum)
+                .description("Filas de dna_audit descartadas tras agotar los reintentos")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        stopped = true;
+        if (flusher != null) {
+            // Sin interrumpir: un saveAll en curso termina su transacción antes de que el hilo salga.
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Lo que quedó en cola se inserta antes de cerrar el contexto para no perder auditorías.
+        List<MutantEntity> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            List<MutantEntity> batch = new ArrayList<>(batchSize);
+            try {
+                MutantEntity first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falló la escritura diferida de {} filas de dna_audit", batch.size(), e);
+            }
+        }
+    }
+
+    private boolean accept(MutantEntity entity) {
+        backlogLock.readLock().lock();
+        try {
+            if (pending.putIfAbsent(entity.getGenomeHash(), entity.isMutant()) != null) {
+                return false;
+            }
+            record(entity);
+            return true;
+        } finally {
+            backlogLock.readLock().unlock();
+        }
+    }
+
+    private void flush(List<MutantEntity> batch) {
+        // Desde el commit hasta sacar las filas de pending, cada una figura en los dos lados.
+        backlogLock.readLock().lock();
+        try {
+            saveWithRetry(batch);
+        } catch (DataIntegrityViolationException e) {
+            // Algún genoma ya estaba insertado: reintentamos de a uno y descartamos solo los duplicados.
+            batch.forEach(this::saveIgnoringDuplicate);
+        } catch (RuntimeException e) {
+            log.error("Se descartan {} filas de dna_audit que no se pudieron insertar", batch.size(), e);
+            batch.forEach(this::drop);
+        } finally {
+            // Mientras se reintenta las filas siguen pendientes y el veredicto se sigue sirviendo desde acá.
+            batch.forEach(entity -> pending.remove(entity.getGenomeHash()));
+            backlogLock.readLock().unlock();
+        }
+    }
+
+    private void saveWithRetry(List<MutantEntity> batch) {
+        long backoff = RETRY_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mutantRegistry.saveAll(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !pause(backoff)) {
+                    throw e;
+                }
+                log.warn("Falló la escritura de {} filas de dna_audit (intento {}); se reintenta en {} ms",
+                        batch.size(), attempt, backoff, e);
+                // Una transacción revertida puede haber dejado ids asignados que ya no existen.
+                batch.forEach(entity -> entity.setId(null));
+                backoff *= 2;
+            }
+        }
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void saveIgnoringDuplicate(MutantEntity entity) {
+        try {
+            entity.setId(null);
+            mutantRegistry.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Genoma {} ya registrado; se descarta el duplicado", entity.getGenomeHash().toHex());
+            unrecord(entity);
+        } catch (RuntimeException e) {
+            log.error("Se descarta la fila de dna_audit del genoma {}", entity.getGenomeHash().toHex(), e);
+            drop(entity);
+        }
+    }
+
+    private void drop(MutantEntity entity) {
+        dropped.increment();
+        unrecord(entity);
+    }
+
+    private void record(MutantEntity entity) {
+        verdictCounters.record(entity.isMutant());
+        verdictTimeline.record(entity.getCreatedAt(), entity.isMutant());
+    }
+
+    private void unrecord(MutantEntity entity) {
+        verdictCounters.discard(entity.isMutant());
+        verdictTimeline.discard(entity.getCreatedAt(), entity.isMutant());
+    }
+}
@@ -0,0 +1,80 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Backend por defecto: dna_audit en la base configurada (H2 en memoria, o en disco con el perfil h2file).
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "genome.registry.backend", havingValue = "jpa", matchIfMissing = true)
+public class JpaMutantRegistry implements MutantRegistry {
+
+    private final AuditJpaRepository auditJpaRepository;
+
+    @Override
+    public Optional<MutantEntity> findByGenomeHash(GenomeFingerprint genomeHash) {
+        return auditJpaRepository.findByGenomeHash(genomeHash);
+    }
+
+    @Override
+    public Optional<Boolean> findVerdictByGenomeHash(GenomeFingerprint genomeHash) {
+        return auditJpaRepository.findVerdictByGenomeHash(genomeHash);
+    }
+
+    @Override
+    public List<StoredVerdict> findVerdictsByGenomeHashIn(Collection<GenomeFingerprint> genomeHashes) {
+        return auditJpaRepository.findVerdictsByGenomeHashIn(genomeHashes);
+    }
+
+    @Override
+    public MutantEntity save(MutantEntity entity) {
+        return auditJpaRepository.save(entity);
+    }
+
+    @Override
+    public List<MutantEntity> saveAll(List<MutantEntity> entities) {
+        // saveAll corre en una transacción y, con ids de secuencia, Hibernate agrupa los INSERT por lote.
+        return auditJpaRepository.saveAll(entities);
+    }
+
+    @Override
+    public long countByMutantTrue() {
+        return auditJpaRepository.countByMutantTrue();
+    }
+
+    @Override
+    public long countByMutantFalse() {
+        return auditJpaRepository.countByMutantFalse();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachVerdictSince(LocalDateTime since, Consumer<TimedVerdict> visitor) {
+        try (Stream<TimedVerdict> verdicts = auditJpaRepository.streamVerdictsSince(since)) {
+            verdicts.forEach(visitor);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachGenomeHash(Consumer<GenomeFingerprint> visitor) {
+        try (Stream<GenomeFingerprint> genomeHashes = auditJpaRepository.streamGenomeHashes()) {
+            genomeHashes.forEach(visitor);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.entity.GenomeSnapshotConverter;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Backend embebido sin base de datos: un log de solo agregado en segmentos mapeados ({@link MappedSegmentLog})
+ * y un índice hash fuera del heap ({@link MappedVerdictIndex}) con huella → veredicto + offset.
+ * Las búsquedas de veredicto no bloquean ni asignan memoria; las escrituras pasan por un único lock.
+ * Cada lote se fuerza al log antes de publicar sus ranuras, así que el índice nunca apunta a un registro que no
+ * llegó a disco. El índice lo fuerza un hilo cada {@code genome.registry.mmap.sync-interval}; lo que no alcanzó
+ * a bajar se recupera del log al arrancar.
+ * Al arrancar solo se recorre la parte del log que el índice todavía no conocía; tras un cierre abrupto además se
+ * valida cada ranura contra el log y, si alguna no tiene su registro, el índice se reconstruye desde cero.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "genome.registry.backend", havingValue = "mmap")
+public class MappedMutantRegistry implements MutantRegistry {
+
+    private static final Optional<Boolean> MUTANT = Optional.of(true);
+    private static final Optional<Boolean> HUMAN = Optional.of(false);
+    private static final String INDEX_FILE = "verdicts.idx";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int initialCapacity;
+    private final Duration syncInterval;
+    private final GenomeSnapshotConverter snapshotConverter = new GenomeSnapshotConverter();
+    private final Object writeLock = new Object();
+
+    private MappedVerdictIndex index;
+    private MappedSegmentLog segmentLog;
+    private ScheduledExecutorService syncer;
+
+    public MappedMutantRegistry(@Value("${genome.registry.mmap.directory:${genome.data-dir:./data}/registry}") Path directory,
+                                @Value("${genome.registry.mmap.segment-bytes:67108864}") int segmentBytes,
+                                @Value("${genome.registry.mmap.initial-capacity:65536}") int initialCapacity,
+                                @Value("${genome.registry.mmap.sync-interval:PT1S}") Duration syncInterval) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.initialCapacity = initialCapacity;
+        this.syncInterval = syncInterval;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        index = MappedVerdictIndex.open(directory.resolve(INDEX_FILE), initialCapacity);
+        boolean clean = index.wasClean();
+        index.markClean(false);
+        segmentLog = new MappedSegmentLog(directory, segmentBytes, snapshotConverter);
+        long[] replayed = new long[1];
+        MappedSegmentLog.RecordVisitor replay = (offset, high, low, mutant, createdAt) -> {
+            if (index.insert(high, low, mutant, offset)) {
+                replayed[0]++;
+            }
+        };
+        index.logEnd(segmentLog.open(index.logEnd(), replay));
+        if (!clean && !index.recount(segmentLog::holds)) {
+            // Archivos de antes de forzar el log por lote: la única salida segura es releer el log entero.
+            log.warn("El índice mapeado apunta a registros que no llegaron a disco; se reconstruye desde el log");
+            index = MappedVerdictIndex.recreate(directory.resolve(INDEX_FILE), initialCapacity);
+            segmentLog = new MappedSegmentLog(directory, segmentBytes, snapshotConverter);
+            replayed[0] = 0;
+            index.logEnd(segmentLog.open(0, replay));
+        }
+        index.force();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("genome-registry-sync-");
+        threadFactory.setDaemon(true);
+        syncer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        syncer.scheduleWithFixedDelay(this::sync, syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Registro mmap abierto en {}: {} genomas, {} recuperados del log, {} ms", directory, index.size(),
+                replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        syncer.shutdown();
+        syncer.awaitTermination(5, TimeUnit.SECONDS);
+        synchronized (writeLock) {
+            segmentLog.force();
+            // Con la marca de cierre limpio el próximo arranque confía en los totales del encabezado.
+            index.markClean(true);
+            index.force();
+        }
+    }
+
+    @Override
+    public Optional<MutantEntity> findByGenomeHash(GenomeFingerprint genomeHash) {
+        long meta = index.find(genomeHash.high(), genomeHash.low());
+        return meta == 0 ? Optional.empty() : Optional.of(segmentLog.read(MappedVerdictIndex.offsetOf(meta)));
+    }
+
+    @Override
+    public Optional<Boolean> findVerdictByGenomeHash(GenomeFingerprint genomeHash) {
+        long meta = index.find(genomeHash.high(), genomeHash.low());
+        if (meta == 0) {
+            return Optional.empty();
+        }
+        return MappedVerdictIndex.isMutant(meta) ? MUTANT : HUMAN;
+    }
+
+    @Override
+    public List<StoredVerdict> findVerdictsByGenomeHashIn(Collection<GenomeFingerprint> genomeHashes) {
+        List<StoredVerdict> found = new ArrayList<>();
+        for (GenomeFingerprint genomeHash : genomeHashes) {
+            long meta = index.find(genomeHash.high(), genomeHash.low());
+            if (meta != 0) {
+                found.add(new StoredVerdict(genomeHash, MappedVerdictIndex.isMutant(meta)));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public MutantEntity save(MutantEntity entity) {
+        return saveAll(List.of(entity)).get(0);
+    }
+
+    @Override
+    public List<MutantEntity> saveAll(List<MutantEntity> entities) {
+        // El snapshot se codifica fuera del lock; adentro solo se copian bytes al log y se publica la ranura.
+        List<byte[]> snapshots = new ArrayList<>(entities.size());
+        for (MutantEntity entity : entities) {
+            snapshots.add(snapshotConverter.convertToDatabaseColumn(entity.getMatrixSnapshot()));
+        }
+        synchronized (writeLock) {
+            // Igual que la transacción de JPA: si hay un duplicado no se escribe ninguna fila del lote.
+            Set<GenomeFingerprint> batch = new HashSet<>();
+            for (MutantEntity entity : entities) {
+                GenomeFingerprint genomeHash = entity.getGenomeHash();
+                if (!batch.add(genomeHash) || index.find(genomeHash.high(), genomeHash.low()) != 0) {
+                    throw new DataIntegrityViolationException("El genoma " + genomeHash.toHex() + " ya está registrado");
+                }
+            }
+            try {
+                long from = segmentLog.end();
+                long[] offsets = new long[entities.size()];
+                for (int position = 0; position < entities.size(); position++) {
+                    offsets[position] = segmentLog.append(entities.get(position), snapshots.get(position));
+                }
+                // Primero el log a disco y después las ranuras: si el sistema cae, ninguna apunta a un registro en cero.
+                segmentLog.force(from);
+                for (int position = 0; position < entities.size(); position++) {
+                    MutantEntity entity = entities.get(position);
+                    index.insert(entity.getGenomeHash().high(), entity.getGenomeHash().low(), entity.isMutant(),
+                            offsets[position]);
+                    entity.setId(offsets[position]);
+                }
+                index.logEnd(segmentLog.end());
+            } catch (IOException | UncheckedIOException e) {
+                throw new DataAccessResourceFailureException("No se pudo escribir el registro mmap", e);
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public long countByMutantTrue() {
+        return index.mutants();
+    }
+
+    @Override
+    public long countByMutantFalse() {
+        return index.size() - index.mutants();
+    }
+
+    @Override
+    public void forEachVerdictSince(LocalDateTime since, Consumer<TimedVerdict> visitor) {
+        long from = since.toEpochSecond(ZoneOffset.UTC);
+        walk((offset, high, low, mutant, createdAt) -> {
+            if (createdAt >= from) {
+                visitor.accept(new TimedVerdict(LocalDateTime.ofEpochSecond(createdAt, 0, ZoneOffset.UTC), mutant));
+            }
+        });
+    }
+
+    @Override
+    public void forEachGenomeHash(Consumer<GenomeFingerprint> visitor) {
+        walk((offset, high, low, mutant, createdAt) -> visitor.accept(new GenomeFingerprint(high, low)));
+    }
+
+    // Recorre lo confirmado hasta ahora sin frenar al escritor: el final se lee bajo el lock y el resto no cambia.
+    private void walk(MappedSegmentLog.RecordVisitor visitor) {
+        long until;
+        synchronized (writeLock) {
+            until = segmentLog.end();
+        }
+        try {
+            segmentLog.forEach(until, visitor);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("No se pudo recorrer el registro mmap", e);
+        }
+    }
+
+    private void sync() {
+        try {
+            segmentLog.force();
+            index.force();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo forzar el registro mmap a disco", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.entity.GenomeSnapshotConverter;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * Log de solo agregado en segmentos mapeados ({@code segment-000000.log}, ...) con una fila de auditoría por registro.
+ * Registro: largo (int), huella (2 longs), createdAt en UTC (segundos long + nanos int), veredicto (byte),
+ * snapshot en el formato de {@link GenomeSnapshotConverter} y CRC32 del cuerpo. El largo se escribe último:
+ * un registro a medio escribir queda con largo 0 o con CRC inválido y la recuperación corta ahí.
+ * El offset de un registro es {@code (segmento << 40) | posición}.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+final class MappedSegmentLog {
+
+    private static final int SEGMENT_SHIFT = 40;
+    private static final long POSITION_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int FIXED_BYTES = 3 * Long.BYTES + Integer.BYTES + 1;
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+    private static final byte[] ZEROS = new byte[4096];
+
+    /**
+     * Recibe cada registro sin materializar la entidad.
+     */
+    interface RecordVisitor {
+        void visit(long offset, long high, long low, boolean mutant, long createdAtSecond) throws IOException;
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final GenomeSnapshotConverter snapshotConverter;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private int position;
+
+    MappedSegmentLog(Path directory, int segmentBytes, GenomeSnapshotConverter snapshotConverter) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.snapshotConverter = snapshotConverter;
+    }
+
+    /**
+     * Mapea los segmentos existentes, recorre los registros desde {@code from} y descarta una cola rota.
+     *
+     * @param from    offset hasta donde el índice ya conoce el log
+     * @param visitor destino de los registros que el índice todavía no tiene
+     * @return offset donde continuará el próximo registro
+     */
+    long open(long from, RecordVisitor visitor) throws IOException {
+        int index = 0;
+        while (Files.exists(segmentPath(index))) {
+            segments.add(map(segmentPath(index), Files.size(segmentPath(index))));
+            index++;
+        }
+        if (segments.isEmpty()) {
+            segments.add(map(segmentPath(0), segmentBytes));
+        }
+        int segment = (int) (from >>> SEGMENT_SHIFT);
+        int cursor = (int) (from & POSITION_MASK);
+        if (segment >= segments.size()) {
+            // El índice apunta más allá de lo que hay en disco: se recorre todo y la inserción ignora lo conocido.
+            segment = 0;
+            cursor = 0;
+        }
+        while (true) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int length = cursor + Integer.BYTES <= buffer.capacity() ? buffer.getInt(cursor) : 0;
+            if (length == 0 && segment + 1 < segments.size()) {
+                // El resto del segmento quedó sin usar porque el registro siguiente no entraba.
+                segment++;
+                cursor = 0;
+                continue;
+            }
+            if (!isValid(buffer, cursor, length)) {
+                break;
+            }
+            visit(buffer, segment, cursor, visitor);
+            cursor += FRAME_BYTES + length;
+        }
+        discardTail(segment, cursor);
+        position = cursor;
+        return offset(segment, cursor);
+    }
+
+    /**
+     * Recorre los registros ya confirmados, desde el principio hasta {@code until} (un valor previo de {@link #end()}).
+     * No toma el lock del escritor: lo anterior a {@code until} ya no cambia.
+     */
+    void forEach(long until, RecordVisitor visitor) throws IOException {
+        int lastSegment = (int) (until >>> SEGMENT_SHIFT);
+        for (int segment = 0; segment <= lastSegment; segment++) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int limit = segment == lastSegment ? (int) (until & POSITION_MASK) : buffer.capacity();
+            int cursor = 0;
+            while (cursor + Integer.BYTES <= limit) {
+                int length = buffer.getInt(cursor);
+                if (length == 0) {
+                    break;
+                }
+                visit(buffer, segment, cursor, visitor);
+                cursor += FRAME_BYTES + length;
+            }
+        }
+    }
+
+    /**
+     * Agrega la fila al final del log. Solo lo invoca el escritor.
+     *
+     * @return offset del registro, estable entre reinicios
+     */
+    long append(MutantEntity entity, byte[] snapshot) throws IOException {
+        int length = FIXED_BYTES + snapshot.length;
+        int frame = FRAME_BYTES + length;
+        MappedByteBuffer buffer = segments.get(segments.size() - 1);
+        if (position + frame > buffer.capacity()) {
+            buffer = roll(frame);
+        }
+        int start = position;
+        int body = start + Integer.BYTES;
+        LocalDateTime createdAt = entity.getCreatedAt() == null ? LocalDateTime.now() : entity.getCreatedAt();
+        GenomeFingerprint genomeHash = entity.getGenomeHash();
+        buffer.putLong(body, genomeHash.high());
+        buffer.putLong(body + Long.BYTES, genomeHash.low());
+        buffer.putLong(body + 2 * Long.BYTES, createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(body + 3 * Long.BYTES, createdAt.getNano());
+        buffer.put(body + FIXED_BYTES - 1, (byte) (entity.isMutant() ? 1 : 0));
+        buffer.put(body + FIXED_BYTES, snapshot);
+        buffer.putInt(body + length, checksum(buffer, body, length));
+        buffer.putInt(start, length);
+        position = start + frame;
+        return offset(segments.size() - 1, start);
+    }
+
+    long end() {
+        return offset(segments.size() - 1, position);
+    }
+
+    /**
+     * @return true si en {@code offset} empieza un registro íntegro (largo y CRC) de esa huella, antes del final del log
+     */
+    boolean holds(long offset, long high, long low) {
+        int segment = (int) (offset >>> SEGMENT_SHIFT);
+        if (offset < 0 || offset >= end() || segment >= segments.size()) {
+            return false;
+        }
+        MappedByteBuffer buffer = segments.get(segment);
+        int start = (int) (offset & POSITION_MASK);
+        if (start + Integer.BYTES > buffer.capacity()) {
+            return false;
+        }
+        int body = start + Integer.BYTES;
+        return isValid(buffer, start, buffer.getInt(start))
+                && buffer.getLong(body) == high && buffer.getLong(body + Long.BYTES) == low;
+    }
+
+    MutantEntity read(long offset) {
+        MappedByteBuffer buffer = segments.get((int) (offset >>> SEGMENT_SHIFT));
+        int start = (int) (offset & POSITION_MASK);
+        int length = buffer.getInt(start);
+        int body = start + Integer.BYTES;
+        byte[] snapshot = new byte[length - FIXED_BYTES];
+        buffer.get(body + FIXED_BYTES, snapshot);
+        return MutantEntity.builder()
+                .id(offset)
+                .genomeHash(new GenomeFingerprint(buffer.getLong(body), buffer.getLong(body + Long.BYTES)))
+                .matrixSnapshot(snapshotConverter.convertToEntityAttribute(snapshot))
+                .mutant(buffer.get(body + FIXED_BYTES - 1) != 0)
+                .createdAt(LocalDateTime.ofEpochSecond(buffer.getLong(body + 2 * Long.BYTES),
+                        buffer.getInt(body + 3 * Long.BYTES), ZoneOffset.UTC))
+                .build();
+    }
+
+    /**
+     * Los segmentos anteriores se fuerzan al rotar, así que alcanza con el activo.
+     */
+    void force() {
+        segments.get(segments.size() - 1).force();
+    }
+
+    /**
+     * Fuerza solo lo agregado desde {@code from} (un valor previo de {@link #end()}); si hubo rotación en el medio,
+     * los segmentos anteriores ya se forzaron al rotar.
+     */
+    void force(long from) {
+        int active = segments.size() - 1;
+        int start = (int) (from >>> SEGMENT_SHIFT) == active ? (int) (from & POSITION_MASK) : 0;
+        if (position > start) {
+            segments.get(active).force(start, position - start);
+        }
+    }
+
+    private MappedByteBuffer roll(int frame) throws IOException {
+        segments.get(segments.size() - 1).force();
+        // Un genoma más grande que el segmento configurado recibe un segmento a su medida.
+        MappedByteBuffer next = map(segmentPath(segments.size()), Math.max(segmentBytes, frame));
+        segments.add(next);
+        position = 0;
+        return next;
+    }
+
+    private static void visit(MappedByteBuffer buffer, int segment, int cursor, RecordVisitor visitor) throws IOException {
+        int body = cursor + Integer.BYTES;
+        visitor.visit(offset(segment, cursor), buffer.getLong(body), buffer.getLong(body + Long.BYTES),
+                buffer.get(body + FIXED_BYTES - 1) != 0, buffer.getLong(body + 2 * Long.BYTES));
+    }
+
+    private boolean isValid(MappedByteBuffer buffer, int cursor, int length) {
+        if (length < FIXED_BYTES || (long) cursor + FRAME_BYTES + length > buffer.capacity()) {
+            return false;
+        }
+        int body = cursor + Integer.BYTES;
+        return buffer.getInt(body + length) == checksum(buffer, body, length);
+    }
+
+    // Borra los segmentos posteriores al último registro válido y pone en cero lo que quedó escrito a medias.
+    private void discardTail(int segment, int cursor) throws IOException {
+        while (segments.size() > segment + 1) {
+            segments.remove(segments.size() - 1);
+            Files.deleteIfExists(segmentPath(segments.size()));
+        }
+        MappedByteBuffer buffer = segments.get(segment);
+        if (cursor + Integer.BYTES > buffer.capacity() || buffer.getInt(cursor) == 0) {
+            return;
+        }
+        int at = cursor;
+        while (at < buffer.capacity()) {
+            int chunk = Math.min(ZEROS.length, buffer.capacity() - at);
+            buffer.put(at, ZEROS, 0, chunk);
+            at += chunk;
+        }
+        buffer.force();
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int body, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(body, length));
+        return (int) crc.getValue();
+    }
+
+    private static long offset(int segment, int cursor) {
+        return ((long) segment << SEGMENT_SHIFT) | cursor;
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%06d.log", index));
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+}
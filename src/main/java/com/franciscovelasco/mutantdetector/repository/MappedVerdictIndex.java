@@ -0,0 +1,253 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabla hash de direccionamiento abierto (sondeo lineal) sobre un archivo mapeado: huella → veredicto + offset en el log.
+ * Cada ranura ocupa tres longs: las dos mitades de la huella y un metadato {@code ((offset + 1) << 1) | mutante},
+ * que vale 0 en las ranuras libres. Un solo escritor (el registro, bajo su lock) y lectores sin bloqueo:
+ * el metadato se publica con semántica release después de la huella, así que quien lo lee con acquire ve la ranura entera.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+final class MappedVerdictIndex {
+
+    static final int HEADER_BYTES = 64;
+
+    private static final long MAGIC = 0x47454E4F4D494458L;
+    private static final int SLOT_BYTES = 3 * Long.BYTES;
+    // 24 bytes por ranura: 2^26 ranuras son 1,5 GiB, por debajo del límite de 2 GiB de un mapeo.
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final int MAX_LOAD_PERCENT = 70;
+
+    private static final int CAPACITY_AT = 8;
+    private static final int SIZE_AT = 16;
+    private static final int MUTANTS_AT = 24;
+    private static final int LOG_END_AT = 32;
+    private static final int CLEAN_AT = 40;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Confirma que la ranura apunte a un registro que está entero en el log.
+     */
+    interface SlotCheck {
+        boolean holds(long offset, long high, long low);
+    }
+
+    private final Path file;
+    private volatile MappedByteBuffer buffer;
+
+    private MappedVerdictIndex(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre el índice existente o crea uno vacío si falta o no es válido (en ese caso hay que reconstruirlo desde el log).
+     *
+     * @param file            archivo del índice
+     * @param initialCapacity ranuras iniciales; se redondea a potencia de dos
+     * @return el índice mapeado
+     */
+    static MappedVerdictIndex open(Path file, int initialCapacity) throws IOException {
+        if (Files.exists(file)) {
+            MappedByteBuffer existing = map(file, Files.size(file));
+            long capacity = (long) LONGS.get(existing, CAPACITY_AT);
+            if ((long) LONGS.get(existing, 0) == MAGIC && Long.bitCount(capacity) == 1
+                    && existing.capacity() == HEADER_BYTES + capacity * SLOT_BYTES) {
+                return new MappedVerdictIndex(file, existing);
+            }
+        }
+        return recreate(file, initialCapacity);
+    }
+
+    /**
+     * Descarta el archivo existente y crea un índice vacío, a reconstruir desde el log.
+     */
+    static MappedVerdictIndex recreate(Path file, int initialCapacity) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(16, Math.min(initialCapacity, MAX_CAPACITY)) * 2 - 1);
+        return new MappedVerdictIndex(file, create(file, capacity, 0));
+    }
+
+    boolean wasClean() {
+        return (long) LONGS.get(buffer, CLEAN_AT) != 0;
+    }
+
+    void markClean(boolean clean) {
+        LONGS.setRelease(buffer, CLEAN_AT, clean ? 1L : 0L);
+    }
+
+    long logEnd() {
+        return (long) LONGS.getAcquire(buffer, LOG_END_AT);
+    }
+
+    void logEnd(long offset) {
+        LONGS.setRelease(buffer, LOG_END_AT, offset);
+    }
+
+    long size() {
+        return (long) LONGS.getAcquire(buffer, SIZE_AT);
+    }
+
+    long mutants() {
+        return (long) LONGS.getAcquire(buffer, MUTANTS_AT);
+    }
+
+    /**
+     * Búsqueda sin asignaciones ni bloqueos.
+     *
+     * @return el metadato de la ranura, o 0 si la huella no está registrada
+     */
+    long find(long high, long low) {
+        MappedByteBuffer table = buffer;
+        int mask = (int) (long) LONGS.get(table, CAPACITY_AT) - 1;
+        int slot = slotOf(high, low, mask);
+        while (true) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long meta = (long) LONGS.getAcquire(table, at + 2 * Long.BYTES);
+            if (meta == 0) {
+                return 0;
+            }
+            if ((long) LONGS.get(table, at) == high && (long) LONGS.get(table, at + Long.BYTES) == low) {
+                return meta;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    static boolean isMutant(long meta) {
+        return (meta & 1) != 0;
+    }
+
+    static long offsetOf(long meta) {
+        return (meta >>> 1) - 1;
+    }
+
+    /**
+     * Registra la huella si no estaba. Solo lo invoca el escritor.
+     *
+     * @return false si la huella ya existía
+     */
+    boolean insert(long high, long low, boolean mutant, long offset) throws IOException {
+        long size = size();
+        long capacity = (long) LONGS.get(buffer, CAPACITY_AT);
+        if ((size + 1) * 100 > capacity * MAX_LOAD_PERCENT) {
+            grow();
+        }
+        if (!place(buffer, high, low, ((offset + 1) << 1) | (mutant ? 1 : 0))) {
+            return false;
+        }
+        LONGS.setRelease(buffer, SIZE_AT, size + 1);
+        if (mutant) {
+            LONGS.setRelease(buffer, MUTANTS_AT, mutants() + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Recalcula los totales recorriendo las ranuras y valida cada una contra el log; se usa tras un cierre abrupto,
+     * en el que el sistema pudo bajar a disco páginas del índice sin las del log a las que apuntan.
+     *
+     * @param check validación de cada ranura ocupada
+     * @return false si alguna ranura apunta a un registro que no está entero; el índice hay que reconstruirlo
+     */
+    boolean recount(SlotCheck check) {
+        MappedByteBuffer table = buffer;
+        long capacity = (long) LONGS.get(table, CAPACITY_AT);
+        long size = 0;
+        long mutants = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long meta = (long) LONGS.get(table, at + 2 * Long.BYTES);
+            if (meta != 0) {
+                if (!check.holds(offsetOf(meta), (long) LONGS.get(table, at), (long) LONGS.get(table, at + Long.BYTES))) {
+                    return false;
+                }
+                size++;
+                mutants += meta & 1;
+            }
+        }
+        LONGS.setRelease(table, SIZE_AT, size);
+        LONGS.setRelease(table, MUTANTS_AT, mutants);
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // Duplica la tabla en un archivo nuevo y lo reemplaza de forma atómica; los lectores siguen con la anterior
+    // hasta leer el campo volátil, y como mucho no ven la inserción que está en curso.
+    private void grow() throws IOException {
+        MappedByteBuffer current = buffer;
+        long capacity = (long) LONGS.get(current, CAPACITY_AT);
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("El índice mapeado alcanzó su capacidad máxima de " + MAX_CAPACITY + " ranuras");
+        }
+        Path next = file.resolveSibling(file.getFileName() + ".grow");
+        MappedByteBuffer grown = create(next, (int) capacity * 2, (long) LONGS.get(current, LOG_END_AT));
+        for (int slot = 0; slot < capacity; slot++) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long meta = (long) LONGS.get(current, at + 2 * Long.BYTES);
+            if (meta != 0) {
+                place(grown, (long) LONGS.get(current, at), (long) LONGS.get(current, at + Long.BYTES), meta);
+            }
+        }
+        LONGS.set(grown, SIZE_AT, (long) LONGS.get(current, SIZE_AT));
+        LONGS.set(grown, MUTANTS_AT, (long) LONGS.get(current, MUTANTS_AT));
+        grown.force();
+        Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        buffer = grown;
+    }
+
+    private static boolean place(MappedByteBuffer table, long high, long low, long meta) {
+        int mask = (int) (long) LONGS.get(table, CAPACITY_AT) - 1;
+        int slot = slotOf(high, low, mask);
+        while (true) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long current = (long) LONGS.get(table, at + 2 * Long.BYTES);
+            if (current == 0) {
+                LONGS.set(table, at, high);
+                LONGS.set(table, at + Long.BYTES, low);
+                LONGS.setRelease(table, at + 2 * Long.BYTES, meta);
+                return true;
+            }
+            if ((long) LONGS.get(table, at) == high && (long) LONGS.get(table, at + Long.BYTES) == low) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int slotOf(long high, long low, int mask) {
+        // Las huellas ya son uniformes; basta con plegar ambas mitades.
+        long folded = high ^ low;
+        return (int) (folded ^ (folded >>> 32)) & mask;
+    }
+
+    private static MappedByteBuffer create(Path file, int capacity, long logEnd) throws IOException {
+        Files.deleteIfExists(file);
+        MappedByteBuffer table = map(file, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+        LONGS.set(table, 0, MAGIC);
+        LONGS.set(table, CAPACITY_AT, (long) capacity);
+        LONGS.set(table, LOG_END_AT, logEnd);
+        return table;
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+}
@@ -1,22 +1,55 @@
 package com.franciscovelasco.mutantdetector.repository;
 
 import com.franciscovelasco.mutantdetector.entity.MutantEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
- * Repositorio que centraliza las consultas de ADN procesado.
- * Prefiero nombres custom para despegarlo del ejemplo original.
+ * Registro de ADN procesado, independiente del motor de almacenamiento.
+ * Cada backend se elige con {@code genome.registry.backend}; el de JPA es {@link JpaMutantRegistry}.
+ * Un genoma ya registrado se informa con {@link org.springframework.dao.DataIntegrityViolationException},
+ * igual que la restricción única de dna_audit.
  *
  * @author Francisco Velasco (Legajo 51141)
  */
-public interface MutantRegistry extends JpaRepository<MutantEntity, Long> {
+public interface MutantRegistry {
 
-    Optional<MutantEntity> findByGenomeHash(String genomeHash);
+    /**
+     * Lectura de auditoría: la fila completa, snapshot incluido.
+     */
+    Optional<MutantEntity> findByGenomeHash(GenomeFingerprint genomeHash);
+
+    /**
+     * Camino caliente de deduplicación: solo el veredicto guardado.
+     */
+    Optional<Boolean> findVerdictByGenomeHash(GenomeFingerprint genomeHash);
+
+    List<StoredVerdict> findVerdictsByGenomeHashIn(Collection<GenomeFingerprint> genomeHashes);
+
+    MutantEntity save(MutantEntity entity);
+
+    /**
+     * Registra un lote completo; si algún genoma ya existía no se garantiza que el resto haya quedado guardado.
+     */
+    List<MutantEntity> saveAll(List<MutantEntity> entities);
 
     long countByMutantTrue();
 
     long countByMutantFalse();
-}
 
+    /**
+     * Recorre fecha y veredicto de los genomas registrados desde {@code since}, sin materializar entidades.
+     * Se usa una sola vez al arrancar; ninguna consulta por request pasa por acá.
+     */
+    void forEachVerdictSince(LocalDateTime since, Consumer<TimedVerdict> visitor);
+
+    /**
+     * Recorre las huellas registradas para armar el filtro de Bloom al arrancar.
+     */
+    void forEachGenomeHash(Consumer<GenomeFingerprint> visitor);
+}
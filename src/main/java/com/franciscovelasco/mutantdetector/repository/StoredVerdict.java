@@ -0,0 +1,13 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+
+/**
+ * Proyección mínima de dna_audit para deduplicar: la huella y el veredicto, sin el snapshot del genoma.
+ *
+ * @param genomeHash huella del genoma registrado
+ * @param mutant veredicto guardado
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record StoredVerdict(GenomeFingerprint genomeHash, boolean mutant) {
+}
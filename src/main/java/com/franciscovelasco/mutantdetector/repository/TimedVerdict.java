@@ -0,0 +1,13 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de dna_audit para reconstruir la serie temporal de /stats: solo fecha y veredicto.
+ *
+ * @param createdAt momento en que se registró el genoma
+ * @param mutant    veredicto persistido
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record TimedVerdict(LocalDateTime createdAt, boolean mutant) {
+}
@@ -1,21 +1,28 @@
 package com.franciscovelasco.mutantdetector.service;
 
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.detection.ExitDirection;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
 import com.franciscovelasco.mutantdetector.entity.MutantEntity;
-import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics.DuplicateSource;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics.FilterOutcome;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics.Stage;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
 import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Servicio que encapsula la lógica para determinar si un ADN es mutante.
  * Se prioriza frenar la búsqueda una vez que se detectan dos secuencias válidas.
+ * Requests concurrentes con el mismo genoma (también los de /mutant/batch) comparten un único análisis en vuelo:
+ * uno consulta, detecta y encola la fila, y el resto espera su veredicto (ver {@link VerdictFlights}).
  *
  * @author Francisco Velasco (Legajo 51141)
  */
@@ -23,221 +30,143 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DnaAnalyzerService {
 
-    private static final int WINDOW = 4;
-    private static final int REQUIRED_MATCHES = 2;
-    private static final String ALLOWED_SYMBOLS = "ATCG";
-
     private final MutantRegistry mutantRegistry;
+    private final SequenceDetector sequenceDetector;
+    private final GenomeScanner genomeScanner;
+    private final VerdictCache verdictCache;
+    private final GenomeBloomFilter genomeBloomFilter;
+    private final AuditWriteBehind auditWriteBehind;
+    private final AnalysisMetrics analysisMetrics;
+    private final VerdictFlights verdictFlights;
 
     /**
-     * Analiza la matriz, reutiliza resultados cacheados y persiste el nuevo estudio.
+     * Analiza la matriz, reutiliza resultados cacheados y encola el nuevo estudio para persistirlo.
      *
      * @param dnaRows matriz NxN provista por el cliente
      * @return true cuando se detectan dos o más secuencias válidas
      */
-    @Transactional
     public boolean inspectGenome(List<String> dnaRows) {
-        List<String> normalized = normalize(dnaRows);
-        enforceSquareMatrix(normalized);
-
-        String genomeHash = hashGenome(normalized);
-        // Si ya existe el hash evitamos recalcular el algoritmo completo.
-        return mutantRegistry.findByGenomeHash(genomeHash)
-                .map(MutantEntity::isMutant)
-                .orElseGet(() -> persistResult(normalized, genomeHash));
+        // Validación, hash y (si el motor lo soporta) detección ocurren en una sola lectura de las filas.
+        return inspectGenome(genomeScanner.scan(dnaRows));
     }
 
-    private boolean persistResult(List<String> normalized, String genomeHash) {
-        char[][] matrix = buildMatrix(normalized);
-        boolean mutant = detectMutations(matrix);
-        // Guardamos la foto exacta analizada para futuras auditorías.
-        MutantEntity entity = MutantEntity.builder()
-                .genomeHash(genomeHash)
-                .matrixSnapshot(String.join(",", normalized))
-                .mutant(mutant)
-                .createdAt(LocalDateTime.now())
-                .build();
-        mutantRegistry.save(entity);
+    /**
+     * Variante para genomas ya validados y empaquetados mientras se leía el cuerpo del request.
+     *
+     * @param scanned resultado de la pasada única de ingesta
+     * @return true cuando se detectan dos o más secuencias válidas
+     */
+    public boolean inspectGenome(ScannedGenome scanned) {
+        recordScan(scanned);
+        long lookupStarted = System.nanoTime();
+        Boolean known = findRecentVerdict(scanned.genomeHash());
+        boolean mutant;
+        if (known != null) {
+            analysisMetrics.recordStage(Stage.LOOKUP, System.nanoTime() - lookupStarted);
+            mutant = known;
+        } else {
+            mutant = resolveOnce(scanned, lookupStarted);
+        }
+        analysisMetrics.countVerdict(mutant);
         return mutant;
     }
 
-    private List<String> normalize(List<String> dnaRows) {
-        if (dnaRows == null || dnaRows.isEmpty()) {
-            throw new GenomeFormatException("El ADN no puede estar vacío");
-        }
-        // Se homogeneiza la entrada para no depender del formato del cliente.
-        return dnaRows.stream()
-                .map(row -> row == null ? "" : row.trim().toUpperCase())
-                .toList();
-    }
-
-    private void enforceSquareMatrix(List<String> dnaRows) {
-        int dimension = dnaRows.size();
-        if (dimension < WINDOW) {
-            throw new GenomeFormatException("La matriz debe ser al menos 4x4");
-        }
-        dnaRows.forEach(row -> {
-            if (row.length() != dimension) {
-                throw new GenomeFormatException("La matriz debe ser NxN");
-            }
-            int cursor = 0;
-            while (cursor < row.length()) {
-                if (ALLOWED_SYMBOLS.indexOf(row.charAt(cursor)) == -1) {
-                    throw new GenomeFormatException("Solo se admiten caracteres A,T,C,G");
-                }
-                cursor++;
-            }
-        });
-    }
-
-    private char[][] buildMatrix(List<String> dnaRows) {
-        int size = dnaRows.size();
-        char[][] matrix = new char[size][size];
-        int rowIndex = 0;
-        while (rowIndex < size) {
-            matrix[rowIndex] = dnaRows.get(rowIndex).toCharArray();
-            rowIndex++;
-        }
-        return matrix;
-    }
-
-    private boolean detectMutations(char[][] grid) {
-        SequenceTracker tracker = new SequenceTracker();
-        exploreRows(grid, tracker);
-        if (tracker.shouldStop()) {
-            return true;
-        }
-        exploreColumns(grid, tracker);
-        if (tracker.shouldStop()) {
-            return true;
-        }
-        explorePrimaryDiagonals(grid, tracker);
-        if (tracker.shouldStop()) {
-            return true;
-        }
-        exploreSecondaryDiagonals(grid, tracker);
-        return tracker.shouldStop();
-    }
-
-    private void exploreRows(char[][] grid, SequenceTracker tracker) {
-        int row = 0;
-        while (row < grid.length && !tracker.shouldStop()) {
-            inspectLine(grid[row], tracker);
-            row++;
+    private boolean resolveOnce(ScannedGenome scanned, long lookupStarted) {
+        GenomeFingerprint genomeHash = scanned.genomeHash();
+        CompletableFuture<Boolean> flight = new CompletableFuture<>();
+        CompletableFuture<Boolean> leader = verdictFlights.join(genomeHash, flight);
+        if (leader != null) {
+            analysisMetrics.recordStage(Stage.LOOKUP, System.nanoTime() - lookupStarted);
+            analysisMetrics.countDuplicate(DuplicateSource.IN_FLIGHT);
+            return VerdictFlights.await(leader);
         }
-    }
-
-    private void exploreColumns(char[][] grid, SequenceTracker tracker) {
-        int col = 0;
-        int size = grid.length;
-        while (col < size && !tracker.shouldStop()) {
-            char[] column = new char[size];
-            int row = 0;
-            while (row < size) {
-                column[row] = grid[row][col];
-                row++;
+        try {
+            // El líder anterior pudo terminar entre la consulta en memoria y el registro de este vuelo.
+            Boolean known = findRecentVerdict(genomeHash);
+            if (known == null) {
+                known = findStoredVerdict(genomeHash);
             }
-            inspectLine(column, tracker);
-            col++;
+            analysisMetrics.recordStage(Stage.LOOKUP, System.nanoTime() - lookupStarted);
+            boolean mutant = known != null ? known : persistResult(scanned);
+            flight.complete(mutant);
+            return mutant;
+        } catch (Throwable e) {
+            // Los que esperan reciben la misma falla; el próximo request vuelve a intentar desde cero.
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            verdictFlights.land(genomeHash, flight);
         }
     }
 
-    private void explorePrimaryDiagonals(char[][] grid, SequenceTracker tracker) {
-        int limit = grid.length - WINDOW;
-        int row = 0;
-        while (row <= limit && !tracker.shouldStop()) {
-            inspectDiagonal(grid, row, 0, 1, 1, tracker);
-            row++;
+    private Boolean findRecentVerdict(GenomeFingerprint genomeHash) {
+        // Un acierto en memoria resuelve el pedido sin abrir transacción ni tocar la base.
+        Boolean cached = verdictCache.find(genomeHash);
+        if (cached != null) {
+            analysisMetrics.countDuplicate(DuplicateSource.CACHE);
+            return cached;
         }
-        int col = 1;
-        while (col <= limit && !tracker.shouldStop()) {
-            inspectDiagonal(grid, 0, col, 1, 1, tracker);
-            col++;
+        // Un genoma aceptado hace instantes puede seguir en la cola de escritura y todavía no estar en la base.
+        Boolean pending = auditWriteBehind.pendingVerdict(genomeHash);
+        if (pending != null) {
+            analysisMetrics.countDuplicate(DuplicateSource.PENDING);
+            return remember(genomeHash, pending);
         }
+        return null;
     }
 
-    private void exploreSecondaryDiagonals(char[][] grid, SequenceTracker tracker) {
-        int limit = grid.length - WINDOW;
-        int row = 0;
-        int lastColumn = grid.length - 1;
-        while (row <= limit && !tracker.shouldStop()) {
-            inspectDiagonal(grid, row, lastColumn, 1, -1, tracker);
-            row++;
-        }
-        int col = lastColumn - 1;
-        while (col >= WINDOW - 1 && !tracker.shouldStop()) {
-            inspectDiagonal(grid, 0, col, 1, -1, tracker);
-            col--;
-        }
+    private Boolean findStoredVerdict(GenomeFingerprint genomeHash) {
+        // Un "ausente" del filtro es definitivo: el genoma es nuevo y la consulta al registro sobra.
+        if (!genomeBloomFilter.mightContain(genomeHash)) {
+            analysisMetrics.countFilter(FilterOutcome.SKIPPED, 1);
+            return null;
+        }
+        // Si ya existe el hash evitamos recalcular el algoritmo completo; solo viaja el veredicto, no el snapshot.
+        Boolean stored = mutantRegistry.findVerdictByGenomeHash(genomeHash)
+                .map(verdict -> {
+                    analysisMetrics.countDuplicate(DuplicateSource.DATABASE);
+                    return remember(genomeHash, verdict);
+                })
+                .orElse(null);
+        if (genomeBloomFilter.isEnabled()) {
+            analysisMetrics.countFilter(stored != null ? FilterOutcome.FOUND : FilterOutcome.FALSE_POSITIVE, 1);
+        }
+        return stored;
     }
 
-    private void inspectDiagonal(char[][] grid, int startRow, int startCol, int rowStep, int colStep,
-                                 SequenceTracker tracker) {
-        char[] diagonal = extractDiagonal(grid, startRow, startCol, rowStep, colStep);
-        if (diagonal.length >= WINDOW) {
-            inspectLine(diagonal, tracker);
-        }
-    }
-
-    private char[] extractDiagonal(char[][] grid, int row, int col, int rowStep, int colStep) {
-        int size = grid.length;
-        StringBuilder builder = new StringBuilder();
-        int currentRow = row;
-        int currentCol = col;
-        while (currentRow >= 0 && currentRow < size && currentCol >= 0 && currentCol < size) {
-            builder.append(grid[currentRow][currentCol]);
-            currentRow += rowStep;
-            currentCol += colStep;
-        }
-        return builder.toString().toCharArray();
+    private boolean persistResult(ScannedGenome scanned) {
+        boolean mutant = scanned.hasVerdict() ? scanned.verdict() : detect(scanned);
+        // Guardamos la foto exacta analizada para futuras auditorías.
+        MutantEntity entity = scanned.toAuditRecord(mutant);
+        long persistStarted = System.nanoTime();
+        // Al filtro antes que a la cola: desde ahora un "ausente" para esta huella sería falso.
+        genomeBloomFilter.put(scanned.genomeHash());
+        // La inserción sale del camino crítico: se agrupa en lotes en segundo plano.
+        auditWriteBehind.submit(entity);
+        analysisMetrics.recordStage(Stage.PERSISTENCE, System.nanoTime() - persistStarted);
+        return remember(scanned.genomeHash(), mutant);
     }
 
-    private void inspectLine(char[] line, SequenceTracker tracker) {
-        if (line.length < WINDOW) {
-            return;
-        }
-        int streak = 1;
-        int pointer = 1;
-        while (pointer < line.length && !tracker.shouldStop()) {
-            if (line[pointer] == line[pointer - 1]) {
-                streak++;
-                if (streak == WINDOW) {
-                    tracker.registerMatch();
-                    streak = 1;
-                }
-            } else {
-                streak = 1;
-            }
-            pointer++;
-        }
+    private boolean detect(ScannedGenome scanned) {
+        long started = System.nanoTime();
+        boolean mutant = sequenceDetector.detect(scanned.genome());
+        // Fuera del flujo incremental el motor no informa la dirección que cortó la búsqueda.
+        analysisMetrics.recordDetection(scanned.genome().size(),
+                mutant ? ExitDirection.UNKNOWN : ExitDirection.NONE, System.nanoTime() - started);
+        return mutant;
     }
 
-    private String hashGenome(List<String> dnaRows) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            String payload = String.join("|", dnaRows);
-            byte[] hashBytes = digest.digest(payload.getBytes(StandardCharsets.UTF_8));
-            StringBuilder builder = new StringBuilder(hashBytes.length * 2);
-            for (byte hashByte : hashBytes) {
-                builder.append(String.format("%02x", hashByte));
-            }
-            return builder.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 no disponible en la JVM actual", e);
+    private void recordScan(ScannedGenome scanned) {
+        ScannedGenome.Timings timings = scanned.timings();
+        analysisMetrics.recordStage(Stage.VALIDATION, timings.validationNanos());
+        analysisMetrics.recordStage(Stage.HASHING, timings.hashingNanos());
+        if (scanned.hasVerdict()) {
+            analysisMetrics.recordDetection(scanned.genome().size(), scanned.exit(), timings.detectionNanos());
         }
     }
 
-    // Contador simple para cortar la búsqueda una vez cumplido el umbral.
-    private static final class SequenceTracker {
-        private int sequences;
-
-        private void registerMatch() {
-            sequences++;
-        }
-
-        private boolean shouldStop() {
-            return sequences >= REQUIRED_MATCHES;
-        }
+    private boolean remember(GenomeFingerprint genomeHash, boolean mutant) {
+        verdictCache.remember(genomeHash, mutant);
+        return mutant;
     }
 }
-
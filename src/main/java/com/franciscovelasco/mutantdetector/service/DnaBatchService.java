@@ -0,0 +1,192 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.dto.BatchVerdictPayload;
+import com.franciscovelasco.mutantdetector.dto.GenomeInput;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics.DuplicateSource;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics.FilterOutcome;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import com.franciscovelasco.mutantdetector.repository.StoredVerdict;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Analiza lotes de genomas con un solo viaje a la base para consultar y uno para insertar.
+ * Los veredictos se emiten apenas se conocen, así que el orden de salida no es el de entrada: cada
+ * resultado lleva su índice.
+ * Cada genoma se valida con el mismo contrato estricto que POST /mutant/ y comparte con ese camino los análisis en
+ * vuelo: una huella que otro request ya está resolviendo se espera al final del lote en lugar de repetirse.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Service
+@RequiredArgsConstructor
+public class DnaBatchService {
+
+    private final MutantRegistry mutantRegistry;
+    private final SequenceDetector sequenceDetector;
+    private final GenomeScanner genomeScanner;
+    private final VerdictCache verdictCache;
+    private final GenomeBloomFilter genomeBloomFilter;
+    private final AuditWriteBehind auditWriteBehind;
+    private final AnalysisMetrics analysisMetrics;
+    private final VerdictFlights verdictFlights;
+
+    /**
+     * @param genomes lote tal como llegó del cliente
+     * @param sink    recibe un resultado por cada posición del lote
+     */
+    public void inspectBatch(List<GenomeInput> genomes, Consumer<BatchVerdictPayload> sink) {
+        // Genomas sin veredicto conocido, agrupados por huella para no analizar dos veces el mismo.
+        Map<GenomeFingerprint, List<Integer>> waiting = new LinkedHashMap<>();
+        Map<GenomeFingerprint, ScannedGenome> unresolved = new HashMap<>();
+        Map<GenomeFingerprint, Boolean> resolved = new HashMap<>();
+        // Vuelos que lidera este lote, y vuelos ajenos con las posiciones que esperan su veredicto.
+        Map<GenomeFingerprint, CompletableFuture<Boolean>> led = new HashMap<>();
+        Map<GenomeFingerprint, CompletableFuture<Boolean>> followed = new HashMap<>();
+        Map<GenomeFingerprint, List<Integer>> following = new LinkedHashMap<>();
+        try {
+            int index = 0;
+            while (index < genomes.size()) {
+                try {
+                    ScannedGenome scanned = assemble(genomes.get(index));
+                    GenomeFingerprint hash = scanned.genomeHash();
+                    List<Integer> duplicates = waiting.containsKey(hash) ? waiting.get(hash) : following.get(hash);
+                    Boolean known = duplicates == null ? resolved.computeIfAbsent(hash, this::knownVerdict) : null;
+                    if (duplicates != null) {
+                        duplicates.add(index);
+                    } else if (known != null) {
+                        analysisMetrics.countVerdict(known);
+                        sink.accept(BatchVerdictPayload.verdict(index, hash.toHex(), known));
+                    } else {
+                        CompletableFuture<Boolean> flight = new CompletableFuture<>();
+                        CompletableFuture<Boolean> leader = verdictFlights.join(hash, flight);
+                        if (leader != null) {
+                            followed.put(hash, leader);
+                            following.put(hash, new ArrayList<>(List.of(index)));
+                        } else {
+                            led.put(hash, flight);
+                            waiting.put(hash, new ArrayList<>(List.of(index)));
+                            unresolved.put(hash, scanned);
+                        }
+                    }
+                } catch (GenomeFormatException ex) {
+                    analysisMetrics.countRejection(true);
+                    sink.accept(BatchVerdictPayload.rejected(index, ex.getMessage()));
+                }
+                index++;
+            }
+            if (!waiting.isEmpty()) {
+                resolve(waiting, unresolved, led, sink);
+            }
+        } catch (Throwable e) {
+            // Quienes esperan un genoma de este lote reciben la misma falla, como en POST /mutant/.
+            led.values().forEach(flight -> flight.completeExceptionally(e));
+            throw e;
+        } finally {
+            led.forEach(verdictFlights::land);
+        }
+        // Recién ahora, con los vuelos propios ya resueltos: dos lotes que se esperan entre sí no se bloquean.
+        following.forEach((hash, indexes) -> {
+            boolean mutant = VerdictFlights.await(followed.get(hash));
+            analysisMetrics.countDuplicate(DuplicateSource.IN_FLIGHT);
+            emit(indexes, hash, mutant, sink);
+        });
+    }
+
+    private void resolve(Map<GenomeFingerprint, List<Integer>> waiting, Map<GenomeFingerprint, ScannedGenome> unresolved,
+                         Map<GenomeFingerprint, CompletableFuture<Boolean>> led, Consumer<BatchVerdictPayload> sink) {
+        // Una sola consulta IN para lo que no estaba en memoria y el filtro no descarta.
+        List<GenomeFingerprint> candidates = new ArrayList<>(waiting.size());
+        for (GenomeFingerprint hash : waiting.keySet()) {
+            if (genomeBloomFilter.mightContain(hash)) {
+                candidates.add(hash);
+            }
+        }
+        if (genomeBloomFilter.isEnabled()) {
+            analysisMetrics.countFilter(FilterOutcome.SKIPPED, waiting.size() - candidates.size());
+        }
+        if (!candidates.isEmpty()) {
+            lookUp(candidates, waiting, led, sink);
+        }
+        List<MutantEntity> fresh = new ArrayList<>(waiting.size());
+        for (Map.Entry<GenomeFingerprint, List<Integer>> entry : waiting.entrySet()) {
+            ScannedGenome scanned = unresolved.get(entry.getKey());
+            boolean mutant = scanned.hasVerdict()
+                    ? scanned.verdict()
+                    : sequenceDetector.detect(scanned.genome());
+            verdictCache.remember(entry.getKey(), mutant);
+            emit(entry.getValue(), entry.getKey(), mutant, sink);
+            genomeBloomFilter.put(entry.getKey());
+            fresh.add(scanned.toAuditRecord(mutant));
+        }
+        // Todos los genomas nuevos del lote van en una misma transacción con INSERT agrupados.
+        auditWriteBehind.persistAll(fresh);
+        fresh.forEach(entity -> led.get(entity.getGenomeHash()).complete(entity.isMutant()));
+    }
+
+    // Mismo contrato que StreamingGenomeConverter: sin recortar espacios ni aceptar minúsculas.
+    private ScannedGenome assemble(GenomeInput input) {
+        GenomeAssembly assembly = genomeScanner.assemble();
+        if (input != null && input.dnaRows() != null) {
+            for (String row : input.dnaRows()) {
+                assembly.acceptRow(row == null ? "" : row);
+            }
+        }
+        return assembly.finish();
+    }
+
+    private void lookUp(List<GenomeFingerprint> candidates, Map<GenomeFingerprint, List<Integer>> waiting,
+                        Map<GenomeFingerprint, CompletableFuture<Boolean>> led, Consumer<BatchVerdictPayload> sink) {
+        long found = 0;
+        for (StoredVerdict stored : mutantRegistry.findVerdictsByGenomeHashIn(candidates)) {
+            GenomeFingerprint hash = stored.genomeHash();
+            verdictCache.remember(hash, stored.mutant());
+            analysisMetrics.countDuplicate(DuplicateSource.DATABASE);
+            emit(waiting.remove(hash), hash, stored.mutant(), sink);
+            led.get(hash).complete(stored.mutant());
+            found++;
+        }
+        if (genomeBloomFilter.isEnabled()) {
+            analysisMetrics.countFilter(FilterOutcome.FOUND, found);
+            analysisMetrics.countFilter(FilterOutcome.FALSE_POSITIVE, candidates.size() - found);
+        }
+    }
+
+    private Boolean knownVerdict(GenomeFingerprint hash) {
+        Boolean cached = verdictCache.find(hash);
+        if (cached != null) {
+            analysisMetrics.countDuplicate(DuplicateSource.CACHE);
+            return cached;
+        }
+        Boolean pending = auditWriteBehind.pendingVerdict(hash);
+        if (pending != null) {
+            analysisMetrics.countDuplicate(DuplicateSource.PENDING);
+        }
+        return pending;
+    }
+
+    private void emit(List<Integer> indexes, GenomeFingerprint hash, boolean mutant,
+                      Consumer<BatchVerdictPayload> sink) {
+        String hex = hash.toHex();
+        indexes.forEach(position -> {
+            analysisMetrics.countVerdict(mutant);
+            sink.accept(BatchVerdictPayload.verdict(position, hex, mutant));
+        });
+    }
+}
@@ -1,10 +1,24 @@
 package com.franciscovelasco.mutantdetector.service;
 
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.dto.CacheStatsPayload;
 import com.franciscovelasco.mutantdetector.dto.StatsPayload;
-import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import com.franciscovelasco.mutantdetector.dto.TimeBucketPayload;
+import com.franciscovelasco.mutantdetector.dto.TimeseriesPayload;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Resolution;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Servicio auxiliar encargado de exponer las métricas solicitadas por el enunciado.
  * Mantenerlo separado facilita evolucionar las estadísticas sin tocar la lógica de análisis.
@@ -15,13 +29,59 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class DnaMetricsService {
 
-    private final MutantRegistry mutantRegistry;
+    private final VerdictCounters verdictCounters;
+    private final VerdictTimeline verdictTimeline;
+    private final VerdictCache verdictCache;
+    private final GenomeBloomFilter genomeBloomFilter;
+    private final AuditWriteBehind auditWriteBehind;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Expone en Prometheus los mismos conteos de /stats, la actividad de la caché de veredictos, el filtro de Bloom
+     * y las filas de auditoría perdidas.
+     */
+    @PostConstruct
+    void bindMeters() {
+        Gauge.builder("genome.registered", verdictCounters, VerdictCounters::mutants)
+                .description("Genomas distintos registrados por veredicto")
+                .tag("result", "mutant")
+                .register(meterRegistry);
+        Gauge.builder("genome.registered", verdictCounters, VerdictCounters::humans)
+                .description("Genomas distintos registrados por veredicto")
+                .tag("result", "human")
+                .register(meterRegistry);
+        verdictCache.bindTo(meterRegistry);
+        genomeBloomFilter.bindTo(meterRegistry);
+        auditWriteBehind.bindTo(meterRegistry);
+    }
 
     public StatsPayload fetchStats() {
-        long mutants = mutantRegistry.countByMutantTrue();
-        long humans = mutantRegistry.countByMutantFalse();
-        double ratio = humans == 0 ? mutants : (double) mutants / humans;
-        return new StatsPayload(mutants, humans, ratio);
+        // Contadores en memoria: /stats ya no recorre dna_audit con dos COUNT(*) por pedido.
+        long mutants = verdictCounters.mutants();
+        long humans = verdictCounters.humans();
+        return new StatsPayload(mutants, humans, ratio(mutants, humans));
+    }
+
+    /**
+     * @param buckets cantidad de cubetas a devolver, acotada a la ventana configurada de la resolución
+     */
+    public TimeseriesPayload fetchTimeseries(Resolution resolution, int buckets) {
+        // Cuesta O(cubetas): se leen contadores ya agregados, nunca dna_audit.
+        List<TimeBucketPayload> series = verdictTimeline.lastBuckets(resolution, buckets).stream()
+                .map(bucket -> new TimeBucketPayload(bucket.start(), bucket.mutants(), bucket.humans(),
+                        ratio(bucket.mutants(), bucket.humans())))
+                .toList();
+        return new TimeseriesPayload(resolution.tag(), series);
+    }
+
+    public CacheStatsPayload fetchCacheStats() {
+        CacheStats stats = verdictCache.stats();
+        return new CacheStatsPayload(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), verdictCache.size());
+    }
+
+    private static double ratio(long mutants, long humans) {
+        return humans == 0 ? mutants : (double) mutants / humans;
     }
 }
 
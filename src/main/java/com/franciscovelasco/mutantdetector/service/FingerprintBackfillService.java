@@ -0,0 +1,200 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import com.franciscovelasco.mutantdetector.repository.AuditJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Recalcula la huella de las filas de dna_audit a partir del snapshot guardado.
+ * Es el paso de migración para filas con el hash SHA-256 en texto o tras cambiar de algoritmo:
+ * "missing" completa solo las huellas nulas y "all" reescribe todas con la estrategia actual.
+ * Si dos filas pasan a tener la misma huella (por ejemplo, rotaciones de un genoma con la huella canónica)
+ * se conserva la más antigua y se borran las demás, descontándolas de /stats, para respetar el índice único.
+ * Corre como fase del arranque antes de que el servidor web acepte requests (y antes del readiness): mientras
+ * falten huellas, una búsqueda no encontraría las filas heredadas y se volverían a insertar.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Service
+public class FingerprintBackfillService implements SmartLifecycle {
+
+    // Después del backfill de snapshots, que deja listo el matrix_snapshot que acá se lee.
+    static final int PHASE = SnapshotBackfillService.PHASE + 1;
+
+    private final AuditJpaRepository auditJpaRepository;
+    private final GenomeScanner genomeScanner;
+    private final GenomeBloomFilter genomeBloomFilter;
+    private final VerdictCounters verdictCounters;
+    private final VerdictTimeline verdictTimeline;
+    private final TransactionTemplate transactionTemplate;
+    private final String mode;
+    private volatile boolean running;
+
+    public FingerprintBackfillService(AuditJpaRepository auditJpaRepository, GenomeScanner genomeScanner,
+                                      GenomeBloomFilter genomeBloomFilter, VerdictCounters verdictCounters,
+                                      VerdictTimeline verdictTimeline, TransactionTemplate transactionTemplate,
+                                      @Value("${genome.fingerprint.backfill:none}") String mode) {
+        this.auditJpaRepository = auditJpaRepository;
+        this.genomeScanner = genomeScanner;
+        this.genomeBloomFilter = genomeBloomFilter;
+        this.verdictCounters = verdictCounters;
+        this.verdictTimeline = verdictTimeline;
+        this.transactionTemplate = transactionTemplate;
+        this.mode = mode.trim().toLowerCase();
+    }
+
+    @Override
+    public void start() {
+        run();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    void run() {
+        if (mode.equals("none")) {
+            return;
+        }
+        boolean onlyMissing = !mode.equals("all");
+        long updated = 0;
+        long merged = 0;
+        PageOutcome page = backfillPage(onlyMissing, 0);
+        while (page.rows() > 0) {
+            updated += page.updated();
+            merged += page.merged();
+            page = backfillPage(onlyMissing, page.lastId());
+        }
+        log.info("Backfill de huellas ({}) completado: {} filas actualizadas, {} duplicados eliminados",
+                mode, updated, merged);
+    }
+
+    // El snapshot es perezoso: cada página vive en su propia transacción para poder leerlo y guardar las huellas.
+    private PageOutcome backfillPage(boolean onlyMissing, long lastId) {
+        return transactionTemplate.execute(status -> {
+            List<MutantEntity> page = nextPage(onlyMissing, lastId);
+            List<MutantEntity> kept = new ArrayList<>(page.size());
+            Set<Long> removed = new HashSet<>();
+            long updated = 0;
+            long merged = 0;
+            long last = lastId;
+            for (MutantEntity entity : page) {
+                last = entity.getId();
+                if (removed.contains(entity.getId())) {
+                    // Ya se borró como duplicado de una fila anterior de esta misma página.
+                    continue;
+                }
+                switch (refresh(entity, removed)) {
+                    case UPDATED -> {
+                        updated++;
+                        kept.add(entity);
+                    }
+                    case MERGED_INTO_OLDER -> merged++;
+                    case MERGED_NEWER -> {
+                        updated++;
+                        merged++;
+                        kept.add(entity);
+                    }
+                    case SKIPPED -> kept.add(entity);
+                }
+            }
+            auditJpaRepository.saveAll(kept);
+            return new PageOutcome(page.size(), updated, merged, last);
+        });
+    }
+
+    private List<MutantEntity> nextPage(boolean onlyMissing, long lastId) {
+        return onlyMissing
+                ? auditJpaRepository.findTop500ByGenomeHashIsNullAndIdGreaterThanOrderByIdAsc(lastId)
+                : auditJpaRepository.findTop500ByIdGreaterThanOrderByIdAsc(lastId);
+    }
+
+    /**
+     * Las páginas avanzan por id creciente, así que una fila con id menor que ya tiene la huella nueva es más antigua
+     * y se queda; una con id mayor todavía conserva su huella anterior y se borra solo si la nueva coincide.
+     */
+    private Refresh refresh(MutantEntity entity, Set<Long> removed) {
+        GenomeFingerprint genomeHash = fingerprint(entity);
+        if (genomeHash == null) {
+            return Refresh.SKIPPED;
+        }
+        Optional<MutantEntity> holder = auditJpaRepository.findByGenomeHash(genomeHash)
+                .filter(other -> !other.getId().equals(entity.getId()));
+        Refresh outcome = Refresh.UPDATED;
+        if (holder.isPresent() && holder.get().getId() < entity.getId()) {
+            remove(entity, holder.get(), removed);
+            return Refresh.MERGED_INTO_OLDER;
+        }
+        if (holder.isPresent()) {
+            if (!genomeHash.equals(fingerprint(holder.get()))) {
+                // La huella anterior de otra fila coincide por azar con la nueva: se deja esta fila como estaba.
+                log.warn("dna_audit.id={} conserva su huella: la nueva ya figura en dna_audit.id={}",
+                        entity.getId(), holder.get().getId());
+                return Refresh.SKIPPED;
+            }
+            remove(holder.get(), entity, removed);
+            // Hibernate ejecuta los DELETE después de los UPDATE: sin este flush el índice único rechazaría la huella.
+            auditJpaRepository.flush();
+            outcome = Refresh.MERGED_NEWER;
+        }
+        entity.setGenomeHash(genomeHash);
+        // El filtro se armó al arrancar, antes de que estas filas tuvieran huella.
+        genomeBloomFilter.put(genomeHash);
+        return outcome;
+    }
+
+    private GenomeFingerprint fingerprint(MutantEntity entity) {
+        try {
+            return genomeScanner.scan(entity.getMatrixSnapshot().toRows()).genomeHash();
+        } catch (GenomeFormatException e) {
+            // Un snapshot corrupto no debe frenar la migración del resto; queda registrado para revisión manual.
+            log.warn("No se pudo recalcular la huella de dna_audit.id={}: {}", entity.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void remove(MutantEntity duplicate, MutantEntity survivor, Set<Long> removed) {
+        removed.add(duplicate.getId());
+        log.warn("dna_audit.id={} tiene la misma huella que dna_audit.id={}, más antigua; se elimina",
+                duplicate.getId(), survivor.getId());
+        auditJpaRepository.delete(duplicate);
+        // Los contadores de /stats se sembraron al arrancar, con esta fila incluida.
+        verdictCounters.discard(duplicate.isMutant());
+        verdictTimeline.discard(duplicate.getCreatedAt(), duplicate.isMutant());
+    }
+
+    private enum Refresh {
+        UPDATED, MERGED_INTO_OLDER, MERGED_NEWER, SKIPPED
+    }
+
+    private record PageOutcome(int rows, long updated, long merged, long lastId) {
+    }
+}
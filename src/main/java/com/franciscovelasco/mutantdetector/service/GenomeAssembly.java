@@ -0,0 +1,135 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.detection.ExitDirection;
+import com.franciscovelasco.mutantdetector.detection.GenomeStream;
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprinter;
+
+/**
+ * Armado incremental de un genoma: recibe filas de a una, las valida y empaqueta al instante
+ * y rechaza la entrada en cuanto deja de ser válida, sin esperar al resto.
+ * Si el tamaño no se conoce de antemano lo fija la primera fila, que se rechaza si supera el máximo
+ * antes de reservar el buffer.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public final class GenomeAssembly {
+
+    private final SequenceDetector sequenceDetector;
+    private final GenomeFingerprinter genomeFingerprinter;
+    // En modo estricto no se recorta ni se pasa a mayúsculas: es el contrato de POST /mutant/.
+    private final boolean strict;
+    private final int maxSize;
+    private final long started = System.nanoTime();
+    private PackedGenome genome;
+    private GenomeStream stream;
+    private int rows;
+    private long detectionNanos;
+
+    GenomeAssembly(SequenceDetector sequenceDetector, GenomeFingerprinter genomeFingerprinter,
+                   int maxSize, int expectedSize, boolean strict) {
+        this.sequenceDetector = sequenceDetector;
+        this.genomeFingerprinter = genomeFingerprinter;
+        this.maxSize = maxSize;
+        this.strict = strict;
+        if (expectedSize > 0) {
+            allocate(expectedSize);
+        }
+    }
+
+    /**
+     * Valida, empaqueta y (si el motor es incremental) analiza la fila siguiente.
+     *
+     * @param raw caracteres de la fila; puede ser una vista sobre el buffer del parser, no se conserva
+     */
+    public void acceptRow(CharSequence raw) {
+        int start = 0;
+        int end = raw.length();
+        if (!strict) {
+            while (start < end && raw.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && raw.charAt(end - 1) <= ' ') {
+                end--;
+            }
+        }
+        if (genome == null) {
+            allocate(end - start);
+        }
+        int size = genome.size();
+        if (rows == size || end - start != size) {
+            throw new GenomeFormatException("La matriz debe ser NxN");
+        }
+        int col = 0;
+        while (col < size) {
+            char symbol = raw.charAt(start + col);
+            int code = PackedGenome.code(strict ? symbol : Character.toUpperCase(symbol));
+            if (code < 0) {
+                throw new GenomeFormatException("Solo se admiten caracteres A,T,C,G");
+            }
+            genome.setBase(rows, col, code);
+            col++;
+        }
+        advance();
+    }
+
+    /**
+     * Variante para filas que ya llegan a 2 bits por base: no hay símbolos que validar, solo el relleno.
+     *
+     * @param packed buffer con (N + 3) / 4 bytes para la fila, cuatro bases por byte desde los bits bajos
+     * @param offset posición del primer byte de la fila
+     */
+    public void acceptPackedRow(byte[] packed, int offset) {
+        if (rows == genome.size()) {
+            throw new GenomeFormatException("La matriz debe ser NxN");
+        }
+        if (!genome.loadRow(rows, packed, offset)) {
+            throw new GenomeFormatException("Los bits de relleno de cada fila deben ser cero");
+        }
+        advance();
+    }
+
+    private void advance() {
+        // Una vez alcanzado el mínimo de secuencias solo seguimos validando y empaquetando.
+        if (stream != null && !stream.isMutant()) {
+            long rowStarted = System.nanoTime();
+            stream.acceptRow(rows);
+            detectionNanos += System.nanoTime() - rowStarted;
+        }
+        rows++;
+    }
+
+    /**
+     * @return huella, genoma empaquetado y veredicto si el motor soporta detección incremental
+     */
+    public ScannedGenome finish() {
+        if (genome == null) {
+            throw new GenomeFormatException("El ADN no puede estar vacío");
+        }
+        if (rows != genome.size()) {
+            throw new GenomeFormatException("La matriz debe ser NxN");
+        }
+        long packed = System.nanoTime();
+        GenomeFingerprint genomeHash = genomeFingerprinter.fingerprint(genome);
+        long hashed = System.nanoTime();
+        Boolean verdict = stream == null ? null : stream.isMutant();
+        ExitDirection exit = stream == null ? null : stream.exitDirection();
+        ScannedGenome.Timings timings = new ScannedGenome.Timings(
+                packed - started - detectionNanos, detectionNanos, hashed - packed);
+        return new ScannedGenome(genomeHash, genome, verdict, exit, timings);
+    }
+
+    private void allocate(int size) {
+        if (size > maxSize) {
+            throw new GenomeFormatException("La matriz admite como máximo " + maxSize + "x" + maxSize);
+        }
+        if (size < SequenceDetector.WINDOW) {
+            throw new GenomeFormatException("La matriz debe ser al menos 4x4");
+        }
+        genome = new PackedGenome(size);
+        stream = sequenceDetector.openStream(genome);
+    }
+}
@@ -0,0 +1,83 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprinter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Lee cada fila una sola vez: normaliza, valida símbolos, empaqueta y detecta.
+ * Antes eran media docena de recorridos (trim, validación, join, toCharArray y cuatro exploraciones);
+ * la huella se calcula al final sobre el buffer empaquetado, que es cuatro veces más chico que el texto.
+ * Todo armado respeta el mismo N máximo, así que ninguna entrada reserva el buffer de una matriz más grande.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Component
+public class GenomeScanner {
+
+    public static final int DEFAULT_MAX_SIZE = 16384;
+
+    private final SequenceDetector sequenceDetector;
+    private final GenomeFingerprinter genomeFingerprinter;
+    private final int maxSize;
+
+    public GenomeScanner(SequenceDetector sequenceDetector, GenomeFingerprinter genomeFingerprinter) {
+        this(sequenceDetector, genomeFingerprinter, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize N máximo aceptado por cualquier formato de entrada
+     */
+    @Autowired
+    public GenomeScanner(SequenceDetector sequenceDetector, GenomeFingerprinter genomeFingerprinter,
+                         @Value("${genome.max-size:16384}") int maxSize) {
+        this.sequenceDetector = sequenceDetector;
+        this.genomeFingerprinter = genomeFingerprinter;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Valida y empaqueta la matriz en una sola pasada.
+     *
+     * @param dnaRows filas tal como llegaron del cliente
+     * @return huella, genoma empaquetado y veredicto si el motor soporta detección incremental
+     */
+    public ScannedGenome scan(List<String> dnaRows) {
+        if (dnaRows == null || dnaRows.isEmpty()) {
+            throw new GenomeFormatException("El ADN no puede estar vacío");
+        }
+        // El tamaño se valida en el constructor del armado, antes de reservar el buffer.
+        GenomeAssembly assembly = new GenomeAssembly(sequenceDetector, genomeFingerprinter, maxSize,
+                dnaRows.size(), false);
+        for (String row : dnaRows) {
+            // Equivale a trim().toUpperCase() seguido de la validación NxN y de alfabeto, sin copiar la fila.
+            assembly.acceptRow(row == null ? "" : row);
+        }
+        return assembly.finish();
+    }
+
+    /**
+     * Abre un armado fila por fila para lectores que no conocen el tamaño de antemano.
+     * Es estricto como el contrato HTTP: sin recortar espacios ni aceptar minúsculas.
+     *
+     * @return armado vacío; la primera fila fija N
+     */
+    public GenomeAssembly assemble() {
+        return new GenomeAssembly(sequenceDetector, genomeFingerprinter, maxSize, 0, true);
+    }
+
+    /**
+     * Abre un armado para formatos que declaran N antes de las filas.
+     *
+     * @param size dimensión declarada
+     * @return armado con el buffer ya reservado
+     */
+    public GenomeAssembly assemble(int size) {
+        return new GenomeAssembly(sequenceDetector, genomeFingerprinter, maxSize, size, true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.detection.ExitDirection;
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de la pasada única de ingesta: hash, matriz empaquetada y, si el motor lo permite, el veredicto.
+ *
+ * @param genomeHash huella usada para deduplicar análisis
+ * @param genome matriz validada y empaquetada
+ * @param verdict veredicto calculado durante la lectura, o null si hay que detectar aparte
+ * @param exit dirección que cortó la detección incremental, o null si no hubo detección durante la lectura
+ * @param timings nanosegundos consumidos por cada etapa de la pasada
+ * @author Francisco Velasco (Legajo 51141)
+ */
+public record ScannedGenome(
+        GenomeFingerprint genomeHash,
+        PackedGenome genome,
+        Boolean verdict,
+        ExitDirection exit,
+        Timings timings
+) {
+
+    /**
+     * Reparto del tiempo de la pasada única entre validación/empaquetado, detección incremental y huella.
+     */
+    public record Timings(long validationNanos, long detectionNanos, long hashingNanos) {
+    }
+
+    public boolean hasVerdict() {
+        return verdict != null;
+    }
+
+    /**
+     * Arma la fila de auditoría con la foto exacta analizada.
+     *
+     * @param mutant veredicto final del genoma
+     * @return entidad lista para persistir, todavía sin id
+     */
+    public MutantEntity toAuditRecord(boolean mutant) {
+        return MutantEntity.builder()
+                .genomeHash(genomeHash)
+                .matrixSnapshot(genome)
+                .mutant(mutant)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
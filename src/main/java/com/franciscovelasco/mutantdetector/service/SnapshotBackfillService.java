@@ -0,0 +1,103 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.entity.GenomeSnapshotConverter;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convierte los snapshots heredados en texto ("ATGC,CAGT,...") al formato empaquetado de matrix_snapshot.
+ * Trabaja con SQL directo porque la columna legacy_matrix_snapshot ya no forma parte de la entidad
+ * (ver db/migration/matrix-snapshot-packed.sql). Corre antes del backfill de huellas, que lee el snapshot nuevo.
+ * Ambos son fases del arranque previas al servidor web, así que ningún request ve la tabla a medio migrar.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Slf4j
+@Service
+public class SnapshotBackfillService implements SmartLifecycle {
+
+    // Muy por debajo de la fase en la que Spring Boot arranca el servidor web.
+    static final int PHASE = 0;
+
+    private static final String NEXT_PAGE = "SELECT id, legacy_matrix_snapshot FROM dna_audit "
+            + "WHERE matrix_snapshot IS NULL AND id > ? ORDER BY id LIMIT 500";
+    private static final String UPDATE = "UPDATE dna_audit SET matrix_snapshot = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GenomeScanner genomeScanner;
+    private final GenomeSnapshotConverter snapshotConverter = new GenomeSnapshotConverter();
+    private final String mode;
+    private volatile boolean running;
+
+    public SnapshotBackfillService(JdbcTemplate jdbcTemplate, GenomeScanner genomeScanner,
+                                   @Value("${genome.snapshot.backfill:none}") String mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.genomeScanner = genomeScanner;
+        this.mode = mode.trim().toLowerCase();
+    }
+
+    @Override
+    public void start() {
+        run();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    void run() {
+        if (!mode.equals("legacy")) {
+            return;
+        }
+        long lastId = 0;
+        long converted = 0;
+        List<Map<String, Object>> page = jdbcTemplate.queryForList(NEXT_PAGE, lastId);
+        while (!page.isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(page.size());
+            for (Map<String, Object> legacy : page) {
+                long id = ((Number) legacy.get("id")).longValue();
+                byte[] snapshot = pack(id, (String) legacy.get("legacy_matrix_snapshot"));
+                if (snapshot != null) {
+                    updates.add(new Object[]{snapshot, id});
+                }
+                lastId = id;
+            }
+            jdbcTemplate.batchUpdate(UPDATE, updates);
+            converted += updates.size();
+            page = jdbcTemplate.queryForList(NEXT_PAGE, lastId);
+        }
+        log.info("Backfill de snapshots empaquetados completado: {} filas convertidas", converted);
+    }
+
+    private byte[] pack(long id, String legacy) {
+        try {
+            List<String> rows = legacy == null ? List.of() : Arrays.asList(legacy.split(","));
+            return snapshotConverter.convertToDatabaseColumn(genomeScanner.scan(rows).genome());
+        } catch (GenomeFormatException e) {
+            // Igual que con las huellas: la fila corrupta queda en null para revisión manual sin frenar el resto.
+            log.warn("No se pudo empaquetar el snapshot de dna_audit.id={}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+}
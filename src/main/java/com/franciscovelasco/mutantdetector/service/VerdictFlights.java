@@ -0,0 +1,54 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Análisis en curso por huella, compartidos entre POST /mutant/ y /mutant/batch: el primero que registra una huella
+ * la resuelve (consulta, detecta y encola la fila) y el resto espera su veredicto en lugar de repetir el trabajo.
+ *
+ * @author Francisco Velasco (Legajo 51141)
+ */
+@Component
+public class VerdictFlights {
+
+    // La entrada vive solo mientras el líder resuelve el veredicto.
+    private final ConcurrentHashMap<GenomeFingerprint, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param genomeHash huella a resolver
+     * @param flight     vuelo con el que el llamador pasaría a ser líder
+     * @return el vuelo del líder si ya había uno, o null si el llamador quedó a cargo de {@code flight}
+     */
+    CompletableFuture<Boolean> join(GenomeFingerprint genomeHash, CompletableFuture<Boolean> flight) {
+        return inFlight.putIfAbsent(genomeHash, flight);
+    }
+
+    /**
+     * Libera la huella; el líder debe completar {@code flight} (con veredicto o con falla) antes o después de llamarlo.
+     */
+    void land(GenomeFingerprint genomeHash, CompletableFuture<Boolean> flight) {
+        inFlight.remove(genomeHash, flight);
+    }
+
+    /**
+     * Espera el veredicto del líder y propaga su misma falla, sin envolverla.
+     */
+    static boolean await(CompletableFuture<Boolean> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
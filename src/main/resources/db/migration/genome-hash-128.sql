@@ -0,0 +1,18 @@
+-- Autor: Francisco Velasco (Legajo 51141)
+-- Migración de dna_audit.genome_hash: VARCHAR(64) con SHA-256 en hex -> VARBINARY(16) con huella de 128 bits.
+-- Sintaxis H2 (MODE=MySQL). Solo hace falta en bases persistentes creadas antes del cambio.
+
+-- 1) Conservar el hash anterior y liberar el nombre de columna.
+ALTER TABLE dna_audit ALTER COLUMN genome_hash RENAME TO legacy_genome_hash;
+ALTER TABLE dna_audit ALTER COLUMN legacy_genome_hash SET NULL;
+ALTER TABLE dna_audit ADD COLUMN genome_hash VARBINARY(16);
+
+-- 2) Arrancar la aplicación una vez con genome.fingerprint.backfill=missing:
+--    recalcula la huella de cada fila a partir de matrix_snapshot. El backfill corre antes de que arranque el
+--    servidor web, así que la aplicación no atiende (ni reporta readiness) con huellas a medio completar.
+--    La entidad no declara genome_hash NOT NULL para poder leer las filas heredadas durante este paso.
+
+-- 3) Con todas las huellas completas, restaurar las restricciones y descartar el hash viejo.
+ALTER TABLE dna_audit ALTER COLUMN genome_hash SET NOT NULL;
+ALTER TABLE dna_audit ADD CONSTRAINT uk_dna_audit_genome_hash UNIQUE (genome_hash);
+ALTER TABLE dna_audit DROP COLUMN legacy_genome_hash;
@@ -0,0 +1,15 @@
+-- Autor: Francisco Velasco (Legajo 51141)
+-- Migración de dna_audit.matrix_snapshot: VARCHAR(2048) con filas separadas por coma -> BLOB a 2 bits por base.
+-- Sintaxis H2 (MODE=MySQL). Solo hace falta en bases persistentes creadas antes del cambio.
+
+-- 1) Conservar el texto anterior y liberar el nombre de columna.
+ALTER TABLE dna_audit ALTER COLUMN matrix_snapshot RENAME TO legacy_matrix_snapshot;
+ALTER TABLE dna_audit ALTER COLUMN legacy_matrix_snapshot SET NULL;
+ALTER TABLE dna_audit ADD COLUMN matrix_snapshot BLOB;
+
+-- 2) Arrancar la aplicación una vez con genome.snapshot.backfill=legacy:
+--    empaqueta cada legacy_matrix_snapshot en matrix_snapshot.
+
+-- 3) Con todos los snapshots convertidos, restaurar la restricción y descartar el texto.
+ALTER TABLE dna_audit ALTER COLUMN matrix_snapshot SET NOT NULL;
+ALTER TABLE dna_audit DROP COLUMN legacy_matrix_snapshot;
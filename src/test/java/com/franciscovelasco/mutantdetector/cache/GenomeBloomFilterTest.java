@@ -0,0 +1,92 @@
+package com.franciscovelasco.mutantdetector.cache;
+
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class GenomeBloomFilterTest {
+
+    @Mock
+    private MutantRegistry mutantRegistry;
+
+    @Test
+    @DisplayName("Se arma desde el registro y nunca descarta una huella agregada")
+    void build_shouldNeverRuleOutStoredFingerprints() {
+        doAnswer(invocation -> {
+            Consumer<GenomeFingerprint> visitor = invocation.getArgument(0);
+            for (long seed = 0; seed < 5_000; seed++) {
+                visitor.accept(fingerprint(seed));
+            }
+            return null;
+        }).when(mutantRegistry).forEachGenomeHash(any());
+        GenomeBloomFilter filter = new GenomeBloomFilter(mutantRegistry, true, 10_000, 0.01);
+
+        filter.build();
+
+        for (long seed = 0; seed < 5_000; seed++) {
+            assertThat(filter.mightContain(fingerprint(seed))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Lleno hasta lo previsto, los falsos positivos quedan cerca del objetivo")
+    void mightContain_shouldStayNearTheTargetRate() {
+        GenomeBloomFilter filter = new GenomeBloomFilter(mutantRegistry, true, 10_000, 0.01);
+        for (long seed = 0; seed < 10_000; seed++) {
+            filter.put(fingerprint(seed));
+        }
+
+        int falsePositives = 0;
+        for (long seed = 10_000; seed < 110_000; seed++) {
+            falsePositives += filter.mightContain(fingerprint(seed)) ? 1 : 0;
+        }
+
+        // El redondeo a potencia de dos solo agrega bits, así que la tasa real queda por debajo del 1 %.
+        assertThat(falsePositives / 100_000.0).isLessThan(0.01);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01);
+    }
+
+    @Test
+    @DisplayName("Deshabilitado no reserva memoria ni descarta nada")
+    void disabled_shouldAlwaysAllowTheLookup() {
+        GenomeBloomFilter filter = new GenomeBloomFilter(mutantRegistry, false, 1_000_000, 0.01);
+
+        filter.build();
+        filter.put(fingerprint(1L));
+
+        assertThat(filter.mightContain(fingerprint(2L))).isTrue();
+        verifyNoInteractions(mutantRegistry);
+    }
+
+    @Test
+    @DisplayName("Una configuración desmedida se acota a un arreglo de longs que Java puede reservar")
+    void bitsFor_shouldClampOversizedConfig() {
+        // Armar el filtro con este tope reservaría 8 GiB, así que se verifica el dimensionado que usa el constructor.
+        for (long bits : new long[]{
+                GenomeBloomFilter.bitsFor(20_000_000_000L, 0.01),
+                GenomeBloomFilter.bitsFor(Long.MAX_VALUE, 1e-9),
+                GenomeBloomFilter.bitsFor(1_000_000, 0)}) {
+            assertThat(bits).isEqualTo(GenomeBloomFilter.MAX_BITS);
+            assertThat(bits >>> 6).isPositive().isLessThanOrEqualTo(Integer.MAX_VALUE - 8);
+        }
+        assertThat(GenomeBloomFilter.bitsFor(1_000_000, 0.01)).isEqualTo(1L << 24);
+    }
+
+    private static GenomeFingerprint fingerprint(long seed) {
+        // Mitades mezcladas como las de Murmur3: el filtro las usa directamente como hashes.
+        long mixed = seed * 0x9E3779B97F4A7C15L;
+        return new GenomeFingerprint(mixed ^ (mixed >>> 29), Long.rotateLeft(mixed, 31) ^ seed);
+    }
+}
@@ -0,0 +1,109 @@
+package com.franciscovelasco.mutantdetector.config;
+
+import com.franciscovelasco.mutantdetector.detection.GenomeStream;
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.detection.PackedScanDetector;
+import com.franciscovelasco.mutantdetector.detection.ParallelSequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SkipScanDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.TiledSweepDetector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DetectionConfigTest {
+
+    private static final int THRESHOLD = 16;
+
+    private final DetectionConfig detectionConfig = new DetectionConfig();
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Solo los motores que leen base por base se reparten por bandas en matrices grandes")
+    void sequenceDetector_shouldWrapOnlyPerCellEngines() {
+        assertThat(detector("scalar")).isInstanceOf(ParallelSequenceDetector.class);
+        assertThat(detector("skip-scan")).isInstanceOf(ParallelSequenceDetector.class);
+        assertThat(detector("swar")).isInstanceOf(SwarSequenceDetector.class);
+        assertThat(detector("tiled")).isInstanceOf(TiledSweepDetector.class);
+    }
+
+    @Test
+    @DisplayName("Por encima del umbral el motor elegido sigue atendiendo y conserva la detección fusionada")
+    void sequenceDetector_shouldRunSelectedEngineAboveThreshold() {
+        PackedGenome genome = PackedGenome.encode(human(2 * THRESHOLD));
+
+        assertThat(detector("swar").openStream(genome)).isNotNull();
+        assertThat(detector("swar").detect(genome)).isFalse();
+        assertThat(detector("skip-scan").detect(genome)).isEqualTo(new SkipScanDetector().detect(genome)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Con el umbral de producción, SWAR resuelve matrices grandes él mismo y corta durante la lectura")
+    void sequenceDetector_shouldServeLargeGenomesWithSwar() {
+        SequenceDetector swar = detectionConfig.sequenceDetector("swar", 1024, 256, 64, 512, pool);
+        List<String> rows = human(1100);
+        // Dos rachas horizontales en las filas 3 y 5: la secuencia se completa mucho antes de la última fila.
+        rows.set(3, "GGGG" + rows.get(3).substring(4));
+        rows.set(5, "TTTT" + rows.get(5).substring(4));
+        PackedGenome genome = PackedGenome.encode(rows);
+
+        assertThat(swar).isInstanceOf(SwarSequenceDetector.class);
+        assertThat(swar.detect(genome)).isEqualTo(new PackedScanDetector().detect(genome)).isTrue();
+        GenomeStream stream = swar.openStream(genome);
+        int row = 0;
+        while (!stream.isMutant()) {
+            stream.acceptRow(row++);
+        }
+        assertThat(row).isLessThan(genome.size());
+    }
+
+    @Test
+    @DisplayName("El modo tiled atiende las matrices de miles de filas para las que fue pensado")
+    void sequenceDetector_shouldServeLargeGenomesWithTiled() {
+        SequenceDetector tiled = detectionConfig.sequenceDetector("tiled", 1024, 256, 64, 512, pool);
+        List<String> rows = human(1100);
+        // Una racha vertical y una antidiagonal que cruzan el borde de banda de la fila 64 y el de bloque de la 512.
+        for (int step = 0; step < SequenceDetector.WINDOW; step++) {
+            rows.set(62 + step, replace(rows.get(62 + step), 700, 'A'));
+            rows.set(62 + step, replace(rows.get(62 + step), 513 - step, 'G'));
+        }
+        PackedGenome genome = PackedGenome.encode(rows);
+
+        assertThat(tiled).isInstanceOf(TiledSweepDetector.class);
+        assertThat(tiled.detect(genome)).isEqualTo(new PackedScanDetector().detect(genome)).isTrue();
+        assertThat(tiled.detect(PackedGenome.encode(human(1100)))).isFalse();
+    }
+
+    private static String replace(String row, int col, char base) {
+        return row.substring(0, col) + base + row.substring(col + 1);
+    }
+
+    private SequenceDetector detector(String mode) {
+        return detectionConfig.sequenceDetector(mode, THRESHOLD, 8, 4, 32, pool);
+    }
+
+    // Fondo sin rachas de GenomeLayout.HUMAN: (fila + 2 col) mod 4.
+    private static List<String> human(int size) {
+        List<String> rows = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            char[] line = new char[size];
+            for (int col = 0; col < size; col++) {
+                line[col] = "ACGT".charAt((row + 2 * col) % 4);
+            }
+            rows.add(new String(line));
+        }
+        return rows;
+    }
+}
@@ -1,21 +1,31 @@
 package com.franciscovelasco.mutantdetector.controller;
 
+import com.franciscovelasco.mutantdetector.config.BinaryGenomeConverter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// La caché de veredictos sobrevive a un rollback, así que cada test arranca con contexto y base propios.
 @SpringBootTest
 @AutoConfigureMockMvc
-@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};DB_CLOSE_DELAY=-1;MODE=MySQL")
 class MutantControllerTest {
 
     @Autowired
@@ -144,6 +154,28 @@ class MutantControllerTest {
                 .andExpect(jsonPath("$.ratio").value(1.0));
     }
 
+    @Test
+    @DisplayName("GET /stats/timeseries devuelve las cubetas pedidas con el genoma recién registrado")
+    void testTimeseries_ReturnBuckets() throws Exception {
+        String mutantDna = """
+            {
+              "dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]
+            }
+            """;
+        mockMvc.perform(post("/mutant/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mutantDna));
+
+        mockMvc.perform(get("/stats/timeseries").param("resolution", "day").param("buckets", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("day"))
+                .andExpect(jsonPath("$.buckets.length()").value(3))
+                .andExpect(jsonPath("$.buckets[2].count_mutant_dna").value(1))
+                .andExpect(jsonPath("$.buckets[2].count_human_dna").value(0));
+        mockMvc.perform(get("/stats/timeseries").param("resolution", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("POST /mutant/ debe retornar 400 cuando el campo dna está vacío")
     void testCheckMutant_ReturnBadRequest_WhenDnaIsEmpty() throws Exception {
@@ -158,5 +190,115 @@ class MutantControllerTest {
                         .content(jsonRequest))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    @DisplayName("POST /mutant/ debe rechazar en la primera fila inválida sin leer el resto del cuerpo")
+    void testCheckMutant_RejectEarly_BeforeReadingWholeBody() throws Exception {
+        // Tras la fila inválida el JSON está cortado: si se leyera completo fallaría por otro motivo.
+        mockMvc.perform(post("/mutant/")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\": [\"ATXC\", \"CAG"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Solo se admiten caracteres A,T,C,G"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant/ debe seguir rechazando minúsculas")
+    void testCheckMutant_ReturnBadRequest_WhenLowercase() throws Exception {
+        mockMvc.perform(post("/mutant/")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dna\": [\"atgc\", \"cagt\", \"ttat\", \"agac\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/ debe aceptar el formato binario application/x-genome")
+    void testCheckMutant_AcceptBinaryBody() throws Exception {
+        mockMvc.perform(post("/mutant/")
+                        .contentType(BinaryGenomeConverter.MEDIA_TYPE)
+                        .content(BinaryGenomeConverter.encode(
+                                List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/mutant/")
+                        .contentType(BinaryGenomeConverter.MEDIA_TYPE)
+                        .content(BinaryGenomeConverter.encode(
+                                List.of("ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/ debe retornar 400 con un cuerpo binario truncado, con relleno sucio o sobrante")
+    void testCheckMutant_ReturnBadRequest_WhenBinaryBodyIsInvalid() throws Exception {
+        byte[] body = BinaryGenomeConverter.encode(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"));
+        byte[] dirtyPadding = body.clone();
+        // N = 6 deja dos bases de relleno en el segundo byte de cada fila.
+        dirtyPadding[Integer.BYTES + 1] |= (byte) 0b1100_0000;
+
+        for (byte[] invalid : List.of(Arrays.copyOf(body, body.length - 1), dirtyPadding,
+                Arrays.copyOf(body, body.length + 1), new byte[]{0, 0, 0, 3})) {
+            mockMvc.perform(post("/mutant/")
+                            .contentType(BinaryGenomeConverter.MEDIA_TYPE)
+                            .content(invalid))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch debe responder una línea NDJSON por genoma y registrar los nuevos")
+    void testBatch_StreamVerdicts() throws Exception {
+        String ndjson = """
+            {"dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]}
+            {"dna": ["ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"]}
+            {"dna": ["ATXC", "CAGT", "TTAT", "AGAC"]}
+            {"dna": ["atgc", "cagt", "ttat", "agac"]}
+            """;
+
+        MvcResult started = mockMvc.perform(post("/mutant/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("{\"index\":0,\"hash\":")))
+                .andExpect(content().string(containsString("\"mutant\":false")))
+                .andExpect(content().string(containsString("{\"index\":2,\"status\":400,\"error\":")))
+                // Mismo contrato estricto que POST /mutant/: las minúsculas se rechazan en vez de normalizarse.
+                .andExpect(content().string(containsString("{\"index\":3,\"status\":400,\"error\":")));
+
+        mockMvc.perform(get("/stats"))
+                .andExpect(jsonPath("$.count_mutant_dna").value(1))
+                .andExpect(jsonPath("$.count_human_dna").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch debe retornar 400 cuando el cuerpo no es JSON válido")
+    void testBatch_ReturnBadRequest_WhenMalformed() throws Exception {
+        mockMvc.perform(post("/mutant/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"dna\": [\"ATGC\""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus debe exponer etapas, veredictos y rechazos")
+    void testPrometheus_ExposeAnalysisMetrics() throws Exception {
+        mockMvc.perform(post("/mutant/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGCGA\", \"CAGTGC\", \"TTATGT\", \"AGAAGG\", \"CCCCTA\", \"TCACTG\"]}"));
+        mockMvc.perform(post("/mutant/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATXC\", \"CAGT\", \"TTAT\", \"AGAC\"]}"));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("genome_analysis_stage_seconds_bucket")))
+                .andExpect(content().string(containsString(
+                        "genome_verdicts_total{application=\"genome-sentinel\",result=\"mutant\"} 1.0")))
+                .andExpect(content().string(containsString("genome_rejections_total")))
+                .andExpect(content().string(containsString("cache_gets_total")));
+    }
+}
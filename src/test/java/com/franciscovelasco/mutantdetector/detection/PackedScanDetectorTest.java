@@ -0,0 +1,122 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackedScanDetectorTest {
+
+    private final PackedScanDetector detector = new PackedScanDetector();
+
+    @Test
+    @DisplayName("El empaquetado a 2 bits conserva cada base")
+    void encode_shouldRoundTripRows() {
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+        PackedGenome genome = PackedGenome.encode(rows);
+
+        assertThat(genome.toRows()).isEqualTo(rows);
+    }
+
+    @Test
+    @DisplayName("Detecta mutante con secuencias horizontal y diagonal")
+    void detect_shouldFindMutant() {
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+        assertThat(detector.detect(PackedGenome.encode(rows))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Devuelve humano cuando no hay dos secuencias")
+    void detect_shouldRejectHuman() {
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG");
+
+        assertThat(detector.detect(PackedGenome.encode(rows))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Una racha de siete bases cuenta como dos secuencias")
+    void detect_shouldCountSevenAsTwoSequences() {
+        List<String> rows = List.of("AAAAAAA", "CGCGCGC", "TATATAT", "CGCGCGC", "TATATAT", "CGCGCGC", "TATATAT");
+
+        assertThat(detector.detect(PackedGenome.encode(rows))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Coincide con el recorrido sobre char[][] en matrices aleatorias")
+    void detect_shouldMatchCharMatrixReference() {
+        Random random = new Random(51141);
+        for (int sample = 0; sample < 2000; sample++) {
+            List<String> rows = randomRows(random, 4 + random.nextInt(40), 1 + random.nextInt(4));
+
+            assertThat(detector.detect(PackedGenome.encode(rows)))
+                    .as("matriz %s", rows)
+                    .isEqualTo(referenceDetect(rows));
+        }
+    }
+
+    static List<String> randomRows(Random random, int size, int alphabet) {
+        List<String> rows = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            char[] line = new char[size];
+            for (int col = 0; col < size; col++) {
+                line[col] = "ACGT".charAt(random.nextInt(alphabet));
+            }
+            rows.add(new String(line));
+        }
+        return rows;
+    }
+
+    // Recorrido original basado en char[][] que sirve de oráculo para los detectores empaquetados.
+    static boolean referenceDetect(List<String> rows) {
+        int size = rows.size();
+        int found = 0;
+        for (int row = 0; row < size; row++) {
+            found += countLine(rows, row, 0, 0, 1);
+        }
+        for (int col = 0; col < size; col++) {
+            found += countLine(rows, 0, col, 1, 0);
+        }
+        for (int start = 0; start < size; start++) {
+            found += countLine(rows, start, 0, 1, 1);
+            found += countLine(rows, start, size - 1, 1, -1);
+            if (start > 0) {
+                found += countLine(rows, 0, start, 1, 1);
+            }
+            if (start < size - 1) {
+                found += countLine(rows, 0, start, 1, -1);
+            }
+        }
+        return found >= SequenceDetector.REQUIRED_MATCHES;
+    }
+
+    private static int countLine(List<String> rows, int row, int col, int rowStep, int colStep) {
+        int size = rows.size();
+        StringBuilder builder = new StringBuilder();
+        while (row >= 0 && row < size && col >= 0 && col < size) {
+            builder.append(rows.get(row).charAt(col));
+            row += rowStep;
+            col += colStep;
+        }
+        char[] line = builder.toString().toCharArray();
+        int matches = 0;
+        int streak = 1;
+        for (int pointer = 1; pointer < line.length; pointer++) {
+            if (line[pointer] == line[pointer - 1]) {
+                streak++;
+                if (streak == SequenceDetector.WINDOW) {
+                    matches++;
+                    streak = 1;
+                }
+            } else {
+                streak = 1;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,55 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelSequenceDetectorTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Las rachas que cruzan bordes de banda se cuentan una sola vez")
+    void detect_shouldMatchReferenceAcrossBands() {
+        // Bandas mínimas para forzar que casi todas las rachas verticales y diagonales crucen un borde.
+        SequenceDetector detector = new ParallelSequenceDetector(new SwarSequenceDetector(), pool, 0, 4);
+        Random random = new Random(5);
+        for (int sample = 0; sample < 2000; sample++) {
+            List<String> rows = PackedScanDetectorTest.randomRows(random, 4 + random.nextInt(60), 1 + random.nextInt(4));
+
+            assertThat(detector.detect(PackedGenome.encode(rows)))
+                    .as("matriz %s", rows)
+                    .isEqualTo(PackedScanDetectorTest.referenceDetect(rows));
+        }
+    }
+
+    @Test
+    @DisplayName("Una columna de siete bases repartida en dos bandas cuenta como dos secuencias")
+    void detect_shouldFollowOwnedRunIntoHalo() {
+        SequenceDetector detector = new ParallelSequenceDetector(new SwarSequenceDetector(), pool, 0, 4);
+        List<String> rows = List.of("GATCCCTC", "CAGCCGGC", "TACTGTTG", "GATGCGTG",
+                "GACTCGGT", "TAGGCGCT", "TAGGTCTT", "CCGCGCGG");
+
+        assertThat(detector.detect(PackedGenome.encode(rows))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Por debajo del umbral conserva la detección incremental del motor secuencial")
+    void openStream_shouldDelegateBelowThreshold() {
+        SequenceDetector detector = new ParallelSequenceDetector(new SwarSequenceDetector(), pool, 64, 16);
+
+        assertThat(detector.openStream(new PackedGenome(8))).isNotNull();
+        assertThat(detector.openStream(new PackedGenome(64))).isNull();
+    }
+}
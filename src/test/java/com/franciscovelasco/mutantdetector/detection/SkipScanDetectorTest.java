@@ -0,0 +1,75 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkipScanDetectorTest {
+
+    private final SkipScanDetector detector = new SkipScanDetector();
+
+    @Test
+    @DisplayName("Coincide con el recorrido de referencia y con el motor por defecto en matrices aleatorias")
+    void detect_shouldMatchReferenceAndSwar() {
+        Random random = new Random(24);
+        SwarSequenceDetector swar = new SwarSequenceDetector();
+        for (int sample = 0; sample < 3000; sample++) {
+            int size = 4 + random.nextInt(sample % 10 == 0 ? 120 : 30);
+            List<String> rows = PackedScanDetectorTest.randomRows(random, size, 1 + random.nextInt(4));
+            PackedGenome genome = PackedGenome.encode(rows);
+
+            assertThat(detector.detect(genome))
+                    .as("matriz %s", rows)
+                    .isEqualTo(PackedScanDetectorTest.referenceDetect(rows))
+                    .isEqualTo(swar.detect(genome));
+        }
+    }
+
+    @Test
+    @DisplayName("Una racha de largo L cuenta (L - 1) / 3 secuencias en cualquier posición de la línea")
+    void detect_shouldCountRunsLikeStreakReset() {
+        for (int length = 4; length <= 10; length++) {
+            for (int offset = 0; offset + length <= 12; offset++) {
+                List<String> rows = singleRun(12, offset, length);
+
+                assertThat(detector.detect(PackedGenome.encode(rows)))
+                        .as("racha de %d en la columna %d", length, offset)
+                        .isEqualTo((length - 1) / 3 >= SequenceDetector.REQUIRED_MATCHES);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Encuentra rachas en columnas y en diagonales cortas junto a los bordes")
+    void detect_shouldFindRunsInEveryDirection() {
+        assertThat(detector.detect(PackedGenome.encode(List.of("ACGT", "ACGT", "ACGT", "ACGT")))).isTrue();
+        assertThat(detector.detect(PackedGenome.encode(List.of(
+                "ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG")))).isTrue();
+        assertThat(detector.detect(PackedGenome.encode(List.of(
+                "ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG")))).isFalse();
+    }
+
+    // Una sola racha de A en la primera fila; el fondo repite C, G, T corrido una columna cada dos filas, así que
+    // ninguna dirección junta más de dos bases iguales.
+    private static List<String> singleRun(int size, int offset, int length) {
+        List<String> rows = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            char[] line = new char[size];
+            for (int col = 0; col < size; col++) {
+                line[col] = "CGT".charAt((col + row / 2) % 3);
+            }
+            if (row == 0) {
+                for (int col = offset; col < offset + length; col++) {
+                    line[col] = 'A';
+                }
+            }
+            rows.add(new String(line));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,65 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwarSequenceDetectorTest {
+
+    private final SwarSequenceDetector detector = new SwarSequenceDetector();
+
+    @Test
+    @DisplayName("Coincide con el recorrido de referencia, incluso con rachas que cruzan palabras")
+    void detect_shouldMatchReference() {
+        Random random = new Random(4);
+        for (int sample = 0; sample < 3000; sample++) {
+            int size = 4 + random.nextInt(sample % 10 == 0 ? 140 : 40);
+            List<String> rows = PackedScanDetectorTest.randomRows(random, size, 1 + random.nextInt(4));
+
+            assertThat(detector.detect(PackedGenome.encode(rows)))
+                    .as("matriz %s", rows)
+                    .isEqualTo(PackedScanDetectorTest.referenceDetect(rows));
+        }
+    }
+
+    @Test
+    @DisplayName("Una racha que cruza la frontera entre palabras se cuenta una sola vez")
+    void detect_shouldKeepStreakResetAcrossWords() {
+        StringBuilder first = new StringBuilder("ACGT".repeat(7)).append("ACGAAAAAA");
+        first.setLength(36);
+        List<String> rows = new ArrayList<>();
+        rows.add(first.toString());
+        for (int row = 1; row < 36; row++) {
+            rows.add((row % 2 == 0 ? "CG" : "TA").repeat(18));
+        }
+
+        assertThat(detector.detect(PackedGenome.encode(rows)))
+                .isEqualTo(PackedScanDetectorTest.referenceDetect(rows));
+    }
+
+    @Test
+    @DisplayName("Informa la dirección de la secuencia que completó el mínimo")
+    void openStream_shouldReportExitDirection() {
+        assertThat(exitOf(List.of("AAAA", "AAAA", "CGTC", "TCGT"))).isEqualTo(ExitDirection.HORIZONTAL);
+        assertThat(exitOf(List.of("ACGT", "ACGT", "ACGT", "ACGT"))).isEqualTo(ExitDirection.VERTICAL);
+        assertThat(exitOf(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG")))
+                .isEqualTo(ExitDirection.DIAGONAL);
+        assertThat(exitOf(List.of("ACGAC", "CGACG", "GACGA", "ACGAC", "CGACG"))).isEqualTo(ExitDirection.ANTI_DIAGONAL);
+        assertThat(exitOf(List.of("ATGC", "CAGT", "TTAT", "AGAC"))).isEqualTo(ExitDirection.NONE);
+    }
+
+    private ExitDirection exitOf(List<String> rows) {
+        GenomeStream stream = detector.openStream(PackedGenome.encode(rows));
+        int row = 0;
+        while (row < rows.size() && !stream.isMutant()) {
+            stream.acceptRow(row);
+            row++;
+        }
+        return stream.exitDirection();
+    }
+}
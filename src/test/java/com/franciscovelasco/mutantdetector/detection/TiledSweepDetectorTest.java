@@ -0,0 +1,125 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TiledSweepDetectorTest {
+
+    @Test
+    @DisplayName("Coincide con el recorrido de referencia con bloques chicos y con los de producción")
+    void detect_shouldMatchReference() {
+        Random random = new Random(25);
+        // Bloques de 4 x 32 para que las rachas crucen bordes de bloque en casi todas las matrices.
+        TiledSweepDetector small = new TiledSweepDetector(4, 32);
+        TiledSweepDetector standard = new TiledSweepDetector();
+        for (int sample = 0; sample < 3000; sample++) {
+            int size = 4 + random.nextInt(sample % 10 == 0 ? 140 : 40);
+            List<String> rows = PackedScanDetectorTest.randomRows(random, size, 1 + random.nextInt(4));
+            PackedGenome genome = PackedGenome.encode(rows);
+            boolean expected = PackedScanDetectorTest.referenceDetect(rows);
+
+            assertThat(small.detect(genome)).as("matriz %s", rows).isEqualTo(expected);
+            assertThat(standard.detect(genome)).as("matriz %s", rows).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Las rachas siguen abiertas al pasar de un bloque al siguiente en las cuatro direcciones")
+    void detect_shouldCarryStreaksAcrossTiles() {
+        TiledSweepDetector detector = new TiledSweepDetector(4, 32);
+
+        // Horizontal entre columnas 30 y 33 y vertical entre filas 2 y 5: cada una cruza un borde de bloque.
+        assertThat(detector.detect(withRun(40, 1, 30, 0, 1, 'A'))).isFalse();
+        assertThat(detector.detect(merge(withRun(40, 1, 30, 0, 1, 'A'), 2, 10, 1, 0, 'A'))).isTrue();
+        // Diagonal y antidiagonal que atraviesan la esquina entre cuatro bloques.
+        assertThat(detector.detect(merge(withRun(40, 2, 30, 1, 1, 'A'), 2, 33, 1, -1, 'A'))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Las antidiagonales con bases mezcladas que cruzan bordes de bloque y de banda se cuentan en orden")
+    void detect_shouldKeepAntiDiagonalOrderAcrossTileEdges() {
+        PackedScanDetector scalar = new PackedScanDetector();
+        // A,A,C,C,A,A en la antidiagonal 573, filas 60 a 65: cruza la columna 512 y la fila 64, más una racha horizontal.
+        List<String> rows = background(600);
+        paint(rows, 60, 513, 1, -1, "AACCAA");
+        paint(rows, 10, 100, 0, 1, "GGGG");
+        PackedGenome genome = PackedGenome.encode(rows);
+
+        assertThat(new TiledSweepDetector().detect(genome)).isFalse().isEqualTo(scalar.detect(genome));
+
+        Random random = new Random(573);
+        TiledSweepDetector small = new TiledSweepDetector(4, 32);
+        for (int sample = 0; sample < 2000; sample++) {
+            int size = 48 + random.nextInt(60);
+            int length = 6 + random.nextInt(8);
+            // La secuencia cruza el borde de la columna 32 y arranca cerca de un borde de banda.
+            int row = 4 * (1 + random.nextInt(size / 4 - 4)) - random.nextInt(4);
+            int col = 32 + random.nextInt(length - 1);
+            int colStep = sample % 2 == 0 ? -1 : 1;
+            if (colStep == 1) {
+                col = 32 - 1 - random.nextInt(length - 1);
+            }
+            StringBuilder letters = new StringBuilder();
+            for (int step = 0; step < length; step++) {
+                letters.append("AC".charAt(random.nextInt(2)));
+            }
+            List<String> mixed = background(size);
+            paint(mixed, row, col, 1, colStep, letters.toString());
+            paint(mixed, random.nextInt(size), random.nextInt(size - 4), 0, 1, "GGGG");
+            PackedGenome sampleGenome = PackedGenome.encode(mixed);
+
+            assertThat(small.detect(sampleGenome)).as("secuencia %s desde (%d, %d)", letters, row, col)
+                    .isEqualTo(scalar.detect(sampleGenome));
+        }
+    }
+
+    @Test
+    @DisplayName("Redondea el ancho de bloque a palabras enteras")
+    void constructor_shouldAlignTileColumnsToWords() {
+        TiledSweepDetector detector = new TiledSweepDetector(3, 40);
+        List<String> rows = PackedScanDetectorTest.randomRows(new Random(3), 100, 2);
+
+        assertThat(detector.detect(PackedGenome.encode(rows))).isEqualTo(PackedScanDetectorTest.referenceDetect(rows));
+    }
+
+    // Fondo sin rachas de GenomeLayout.HUMAN ((fila + 2 col) mod 4) con una racha de cuatro bases en la dirección dada.
+    private static PackedGenome withRun(int size, int row, int col, int rowStep, int colStep, char base) {
+        return merge(PackedGenome.encode(background(size)), row, col, rowStep, colStep, base);
+    }
+
+    private static List<String> background(int size) {
+        List<String> rows = new ArrayList<>(size);
+        for (int r = 0; r < size; r++) {
+            char[] line = new char[size];
+            for (int c = 0; c < size; c++) {
+                line[c] = "ACGT".charAt((r + 2 * c) % 4);
+            }
+            rows.add(new String(line));
+        }
+        return rows;
+    }
+
+    private static void paint(List<String> rows, int row, int col, int rowStep, int colStep, String bases) {
+        for (int step = 0; step < bases.length(); step++) {
+            char[] line = rows.get(row + step * rowStep).toCharArray();
+            line[col + step * colStep] = bases.charAt(step);
+            rows.set(row + step * rowStep, new String(line));
+        }
+    }
+
+    private static PackedGenome merge(PackedGenome genome, int row, int col, int rowStep, int colStep, char base) {
+        List<String> rows = genome.toRows();
+        for (int step = 0; step < SequenceDetector.WINDOW; step++) {
+            char[] line = rows.get(row + step * rowStep).toCharArray();
+            line[col + step * colStep] = base;
+            rows.set(row + step * rowStep, new String(line));
+        }
+        return PackedGenome.encode(rows);
+    }
+}
@@ -0,0 +1,29 @@
+package com.franciscovelasco.mutantdetector.detection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorSequenceDetectorTest {
+
+    @Test
+    @DisplayName("Coincide con el recorrido de referencia cuando la Vector API está habilitada")
+    void detect_shouldMatchReference() {
+        assumeTrue(VectorSupport.isAvailable(), "Se requiere --add-modules jdk.incubator.vector");
+        SequenceDetector detector = VectorSupport.createDetector().orElseThrow();
+        Random random = new Random(17);
+        for (int sample = 0; sample < 3000; sample++) {
+            int size = 4 + random.nextInt(sample % 10 == 0 ? 150 : 40);
+            List<String> rows = PackedScanDetectorTest.randomRows(random, size, 1 + random.nextInt(4));
+
+            assertThat(detector.detect(PackedGenome.encode(rows)))
+                    .as("matriz %s", rows)
+                    .isEqualTo(PackedScanDetectorTest.referenceDetect(rows));
+        }
+    }
+}
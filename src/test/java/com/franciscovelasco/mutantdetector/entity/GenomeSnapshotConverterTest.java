@@ -0,0 +1,89 @@
+package com.franciscovelasco.mutantdetector.entity;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GenomeSnapshotConverterTest {
+
+    private final GenomeSnapshotConverter converter = new GenomeSnapshotConverter();
+
+    @Test
+    @DisplayName("Un genoma chico se guarda empaquetado sin comprimir y se recupera intacto")
+    void convert_shouldRoundTripSmallGenome() {
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+        byte[] column = converter.convertToDatabaseColumn(PackedGenome.encode(rows));
+
+        assertThat(column[0]).isEqualTo(GenomeSnapshotConverter.RAW);
+        // 5 bytes de encabezado + 6 filas de 2 bytes, contra 41 caracteres en texto.
+        assertThat(column).hasSize(17);
+        assertThat(converter.convertToEntityAttribute(column).toRows()).isEqualTo(rows);
+    }
+
+    @Test
+    @DisplayName("Sin tope de N: un genoma aleatorio grande ocupa la cuarta parte del texto")
+    void convert_shouldRoundTripLargeRandomGenome() {
+        List<String> rows = randomRows(500, new Random(42));
+
+        byte[] column = converter.convertToDatabaseColumn(PackedGenome.encode(rows));
+
+        assertThat(column.length).isLessThanOrEqualTo(5 + 500 * 125);
+        assertThat(converter.convertToEntityAttribute(column).toRows()).isEqualTo(rows);
+    }
+
+    @Test
+    @DisplayName("Comprime con Deflate los genomas grandes y repetitivos")
+    void convert_shouldDeflateRepetitiveGenome() {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < 256; row++) {
+            rows.add("ACGT".repeat(64));
+        }
+
+        byte[] column = converter.convertToDatabaseColumn(PackedGenome.encode(rows));
+
+        assertThat(column[0]).isEqualTo(GenomeSnapshotConverter.DEFLATE);
+        assertThat(column.length).isLessThan(256 * 64 / 10);
+        assertThat(converter.convertToEntityAttribute(column).toRows()).isEqualTo(rows);
+    }
+
+    @Test
+    @DisplayName("Rechaza snapshots truncados o con codec desconocido")
+    void convert_shouldRejectCorruptColumns() {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < 128; row++) {
+            rows.add("AAAACCCC".repeat(16));
+        }
+        byte[] deflated = converter.convertToDatabaseColumn(PackedGenome.encode(rows));
+        byte[] raw = converter.convertToDatabaseColumn(PackedGenome.encode(List.of("ATGC", "CAGT", "TTAT", "AGAC")));
+        byte[] unknownCodec = raw.clone();
+        unknownCodec[0] = 7;
+
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertToEntityAttribute(Arrays.copyOf(deflated, deflated.length - 4)));
+        assertThrows(IllegalStateException.class,
+                () -> converter.convertToEntityAttribute(Arrays.copyOf(raw, raw.length - 1)));
+        assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute(unknownCodec));
+        assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute(new byte[]{0, 0}));
+    }
+
+    private static List<String> randomRows(int size, Random random) {
+        List<String> rows = new ArrayList<>(size);
+        char[] row = new char[size];
+        for (int index = 0; index < size; index++) {
+            for (int col = 0; col < size; col++) {
+                row[col] = "ACGT".charAt(random.nextInt(4));
+            }
+            rows.add(new String(row));
+        }
+        return rows;
+    }
+}
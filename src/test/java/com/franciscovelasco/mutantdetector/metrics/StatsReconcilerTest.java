@@ -0,0 +1,72 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatsReconcilerTest {
+
+    @Mock
+    private MutantRegistry mutantRegistry;
+
+    @Test
+    @DisplayName("Un lote confirmado pero todavía pendiente no se cuenta dos veces al reconciliar")
+    void reconcile_shouldNotDoubleCountBatchCommittedDuringSnapshot() throws InterruptedException {
+        AtomicLong stored = new AtomicLong();
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mutantRegistry.countByMutantTrue()).thenAnswer(invocation -> stored.get());
+        when(mutantRegistry.countByMutantFalse()).thenReturn(0L);
+        // El commit ya ocurrió, pero el escritor todavía no sacó la fila de pending.
+        when(mutantRegistry.saveAll(anyList())).thenAnswer(invocation -> {
+            stored.incrementAndGet();
+            committed.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, counters,
+                new VerdictTimeline(mutantRegistry, 60, 24, 7), Thread::new, false, 100, 50, 50);
+        StatsReconciler reconciler = new StatsReconciler(mutantRegistry, writer, counters);
+
+        Thread request = new Thread(() -> writer.submit(entity()));
+        request.start();
+        assertThat(committed.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread reconcile = new Thread(reconciler::reconcile);
+        reconcile.start();
+        reconcile.join(200);
+        release.countDown();
+        request.join(5000);
+        reconcile.join(5000);
+
+        assertThat(counters.mutants()).isEqualTo(1);
+        assertThat(writer.pendingCount(true)).isZero();
+    }
+
+    private static MutantEntity entity() {
+        return MutantEntity.builder()
+                .genomeHash(new GenomeFingerprint(11L, ~11L))
+                .matrixSnapshot(PackedGenome.encode(List.of("AAAA", "CCCC", "GGGG", "TTTT")))
+                .mutant(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VerdictCountersTest {
+
+    @Mock
+    private MutantRegistry mutantRegistry;
+
+    @Test
+    @DisplayName("Se siembra una vez desde la base y luego cuenta en memoria")
+    void seed_shouldStartFromDatabaseCounts() {
+        when(mutantRegistry.countByMutantTrue()).thenReturn(40L);
+        when(mutantRegistry.countByMutantFalse()).thenReturn(100L);
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+
+        counters.seed();
+        counters.record(true);
+        counters.record(false);
+        counters.discard(false);
+
+        assertThat(counters.mutants()).isEqualTo(41);
+        assertThat(counters.humans()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("La reconciliación corrige la deriva hacia los valores esperados")
+    void reconcile_shouldCorrectDrift() {
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        counters.record(true);
+        counters.record(true);
+
+        counters.reconcile(1, 7);
+
+        assertThat(counters.mutants()).isEqualTo(1);
+        assertThat(counters.humans()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,95 @@
+package com.franciscovelasco.mutantdetector.metrics;
+
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Bucket;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Resolution;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import com.franciscovelasco.mutantdetector.repository.TimedVerdict;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class VerdictTimelineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 10, 15, 42, 30);
+
+    @Mock
+    private MutantRegistry mutantRegistry;
+
+    @Test
+    @DisplayName("Se reconstruye desde createdAt y agrega cada genoma en minuto, hora y día")
+    @SuppressWarnings("unchecked")
+    void rebuild_shouldRollUpIntoEveryResolution() {
+        VerdictTimeline rebuilt = timeline();
+        doAnswer(invocation -> {
+            Consumer<TimedVerdict> visitor = invocation.getArgument(1);
+            visitor.accept(new TimedVerdict(NOW.minusSeconds(10), true));
+            visitor.accept(new TimedVerdict(NOW.minusMinutes(5), false));
+            visitor.accept(new TimedVerdict(NOW.minusHours(3), true));
+            visitor.accept(new TimedVerdict(null, true));
+            return null;
+        }).when(mutantRegistry).forEachVerdictSince(eq(LocalDateTime.of(2024, 3, 4, 0, 0)), any(Consumer.class));
+
+        rebuilt.rebuild();
+        rebuilt.record(NOW, false);
+
+        List<Bucket> minutes = rebuilt.lastBuckets(Resolution.MINUTE, 6);
+        assertThat(minutes).extracting(Bucket::start).startsWith(LocalDateTime.of(2024, 3, 10, 15, 37))
+                .endsWith(LocalDateTime.of(2024, 3, 10, 15, 42));
+        assertThat(minutes.get(5)).isEqualTo(new Bucket(LocalDateTime.of(2024, 3, 10, 15, 42), 1, 1));
+        assertThat(minutes.get(0).humans()).isEqualTo(1);
+        assertThat(rebuilt.lastBuckets(Resolution.HOUR, 4)).extracting(Bucket::mutants).containsExactly(1L, 0L, 0L, 1L);
+        assertThat(rebuilt.lastBuckets(Resolution.DAY, 1))
+                .containsExactly(new Bucket(LocalDateTime.of(2024, 3, 10, 0, 0), 2, 2));
+    }
+
+    @Test
+    @DisplayName("Al dar la vuelta la cubeta se reinicia y lo que ya salió de la ventana se descarta")
+    void record_shouldRecycleBucketsOutsideTheWindow() {
+        VerdictTimeline timeline = timeline();
+        timeline.record(NOW.minusMinutes(60), true);
+        timeline.record(NOW, false);
+        timeline.record(NOW.minusMinutes(60), true);
+
+        List<Bucket> minutes = timeline.lastBuckets(Resolution.MINUTE, 60);
+
+        assertThat(minutes).hasSize(60);
+        assertThat(minutes).extracting(Bucket::mutants).containsOnly(0L);
+        assertThat(minutes.get(59).humans()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Revertir un duplicado resta sin abrir cubetas y el pedido se acota a la ventana")
+    void discard_shouldOnlyUndoRecordedEvents() {
+        VerdictTimeline timeline = timeline();
+        timeline.record(NOW, true);
+        timeline.discard(NOW, true);
+        timeline.discard(NOW.minusMinutes(1), false);
+
+        assertThat(timeline.lastBuckets(Resolution.MINUTE, 2)).extracting(Bucket::mutants, Bucket::humans)
+                .containsOnly(Tuple.tuple(0L, 0L));
+        assertThat(timeline.lastBuckets(Resolution.HOUR, 1000)).hasSize(24);
+        assertThat(Resolution.fromTag("Hour")).isEqualTo(Resolution.HOUR);
+        assertThrows(IllegalArgumentException.class, () -> Resolution.fromTag("week"));
+    }
+
+    // Reloj fijo en UTC: la hora local de las cubetas coincide con NOW.
+    private VerdictTimeline timeline() {
+        return new VerdictTimeline(mutantRegistry, 60, 24, 7, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,169 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Resolution;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriteBehindTest {
+
+    @Mock
+    private MutantRegistry mutantRegistry;
+
+    @Test
+    @DisplayName("Inserta en segundo plano y libera el veredicto pendiente al terminar")
+    void submit_shouldFlushInBackground() throws InterruptedException {
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, new VerdictCounters(mutantRegistry),
+                timeline(), Thread::new, true, 100, 50, 50);
+        writer.start();
+        MutantEntity entity = entity(1L, true);
+
+        writer.submit(entity);
+
+        verify(mutantRegistry, timeout(2000)).saveAll(List.of(entity));
+        writer.stop();
+        assertThat(writer.pendingVerdict(entity.getGenomeHash())).isNull();
+    }
+
+    @Test
+    @DisplayName("Si el lote choca con un duplicado reintenta de a uno y conserva el resto")
+    void submit_shouldSkipDuplicatesOnBatchFailure() {
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        VerdictTimeline timeline = timeline();
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, counters, timeline, Thread::new,
+                false, 100, 50, 50);
+        MutantEntity duplicate = entity(2L, false);
+        when(mutantRegistry.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicado"));
+        doThrow(new DataIntegrityViolationException("duplicado")).when(mutantRegistry).save(duplicate);
+
+        writer.submit(duplicate);
+
+        verify(mutantRegistry).save(duplicate);
+        assertThat(writer.pendingCount(false)).isZero();
+        assertThat(counters.humans()).isZero();
+        assertThat(timeline.lastBuckets(Resolution.DAY, 1).get(0).humans()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reintenta un lote que falla por un error que no es de integridad y lo cuenta una sola vez")
+    void submit_shouldRetryTransientFailure() {
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, counters, timeline(), Thread::new,
+                false, 100, 50, 50);
+        MutantEntity entity = entity(7L, true);
+        when(mutantRegistry.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"))
+                .thenReturn(List.of(entity));
+
+        writer.submit(entity);
+
+        verify(mutantRegistry, times(2)).saveAll(List.of(entity));
+        assertThat(counters.mutants()).isEqualTo(1);
+        assertThat(writer.droppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Si los reintentos se agotan descarta las filas, las descuenta de /stats y las registra como perdidas")
+    void submit_shouldDropRowsAfterExhaustingRetries() {
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        VerdictTimeline timeline = timeline();
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, counters, timeline, Thread::new,
+                false, 100, 50, 50);
+        MutantEntity entity = entity(8L, true);
+        when(mutantRegistry.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        writer.submit(entity);
+
+        verify(mutantRegistry, times(3)).saveAll(anyList());
+        verify(mutantRegistry, never()).save(entity);
+        assertThat(writer.pendingVerdict(entity.getGenomeHash())).isNull();
+        assertThat(writer.droppedCount()).isEqualTo(1);
+        assertThat(counters.mutants()).isZero();
+        assertThat(timeline.lastBuckets(Resolution.DAY, 1).get(0).mutants()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cuenta por veredicto lo aceptado que aún no llegó a la base")
+    void pendingCount_shouldSplitByVerdict() throws InterruptedException {
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, new VerdictCounters(mutantRegistry),
+                timeline(), Thread::new, true, 100, 50, 50);
+
+        // Sin iniciar el hilo de escritura las filas quedan en cola.
+        writer.submit(entity(3L, true));
+        writer.submit(entity(4L, true));
+        writer.submit(entity(5L, false));
+
+        assertThat(writer.pendingCount(true)).isEqualTo(2);
+        assertThat(writer.pendingCount(false)).isEqualTo(1);
+        writer.stop();
+        verify(mutantRegistry).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Un genoma ya encolado no se vuelve a encolar ni a contar")
+    void submit_shouldIgnoreGenomeAlreadyPending() throws InterruptedException {
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, counters, timeline(), Thread::new,
+                true, 100, 50, 50);
+
+        MutantEntity first = entity(6L, true);
+        writer.submit(first);
+        writer.submit(entity(6L, true));
+
+        assertThat(counters.mutants()).isEqualTo(1);
+        writer.stop();
+        verify(mutantRegistry).saveAll(List.of(first));
+    }
+
+    @Test
+    @DisplayName("Después de detenerse inserta en el hilo actual en lugar de dejar la fila en una cola que nadie vacía")
+    void submit_shouldFlushInlineAfterStop() throws InterruptedException {
+        VerdictCounters counters = new VerdictCounters(mutantRegistry);
+        AuditWriteBehind writer = new AuditWriteBehind(mutantRegistry, counters, timeline(), Thread::new,
+                true, 100, 50, 50);
+        writer.start();
+        writer.stop();
+        MutantEntity late = entity(9L, true);
+
+        writer.submit(late);
+
+        verify(mutantRegistry).saveAll(List.of(late));
+        assertThat(writer.pendingVerdict(late.getGenomeHash())).isNull();
+        assertThat(counters.mutants()).isEqualTo(1);
+    }
+
+    private VerdictTimeline timeline() {
+        return new VerdictTimeline(mutantRegistry, 60, 24, 7);
+    }
+
+    private MutantEntity entity(long seed, boolean mutant) {
+        return MutantEntity.builder()
+                .genomeHash(new GenomeFingerprint(seed, ~seed))
+                .matrixSnapshot(PackedGenome.encode(List.of("AAAA", "CCCC", "GGGG", "TTTT")))
+                .mutant(mutant)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import(JpaMutantRegistry.class)
+class JpaMutantRegistryTest {
+
+    private static final List<String> ROWS = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+    @Autowired
+    private MutantRegistry mutantRegistry;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Resuelve veredictos por huella sin cargar la entidad")
+    void findVerdict_shouldProjectOnlyTheVerdict() {
+        long mutants = mutantRegistry.countByMutantTrue();
+        long humans = mutantRegistry.countByMutantFalse();
+        mutantRegistry.saveAll(List.of(entity(1L, true), entity(2L, false)));
+
+        assertThat(mutantRegistry.findVerdictByGenomeHash(fingerprint(1L))).contains(true);
+        assertThat(mutantRegistry.findVerdictByGenomeHash(fingerprint(2L))).contains(false);
+        assertThat(mutantRegistry.findVerdictByGenomeHash(fingerprint(3L))).isEmpty();
+        assertThat(mutantRegistry.findVerdictsByGenomeHashIn(List.of(fingerprint(1L), fingerprint(3L))))
+                .containsExactly(new StoredVerdict(fingerprint(1L), true));
+        assertThat(mutantRegistry.countByMutantTrue()).isEqualTo(mutants + 1);
+        assertThat(mutantRegistry.countByMutantFalse()).isEqualTo(humans + 1);
+    }
+
+    @Test
+    @DisplayName("La lectura de auditoría recupera el snapshot empaquetado tal cual se analizó")
+    void findByGenomeHash_shouldRestoreSnapshot() {
+        mutantRegistry.save(entity(4L, true));
+        entityManager.flush();
+        entityManager.clear();
+
+        MutantEntity stored = mutantRegistry.findByGenomeHash(fingerprint(4L)).orElseThrow();
+
+        assertThat(stored.getMatrixSnapshot().toRows()).isEqualTo(ROWS);
+    }
+
+    @Test
+    @DisplayName("Un genoma ya registrado se informa como violación de integridad")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void save_shouldRejectDuplicates() {
+        mutantRegistry.save(entity(5L, true));
+
+        assertThrows(DataIntegrityViolationException.class, () -> mutantRegistry.save(entity(5L, true)));
+    }
+
+    @Test
+    @DisplayName("Recorre fecha y veredicto desde un instante, sin las filas anteriores")
+    void forEachVerdictSince_shouldProjectRecentRows() {
+        LocalDateTime since = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        MutantEntity recent = entity(6L, false);
+        recent.setCreatedAt(since.plusMinutes(5));
+        mutantRegistry.saveAll(List.of(entity(7L, true), recent));
+        entityManager.flush();
+        List<TimedVerdict> visited = new ArrayList<>();
+
+        mutantRegistry.forEachVerdictSince(since, visited::add);
+
+        assertThat(visited).containsExactly(new TimedVerdict(since.plusMinutes(5), false));
+    }
+
+    @Test
+    @DisplayName("Recorre las huellas guardadas para armar el filtro de Bloom")
+    void forEachGenomeHash_shouldStreamStoredFingerprints() {
+        mutantRegistry.saveAll(List.of(entity(8L, true), entity(9L, false)));
+        entityManager.flush();
+        List<GenomeFingerprint> visited = new ArrayList<>();
+
+        mutantRegistry.forEachGenomeHash(visited::add);
+
+        assertThat(visited).contains(fingerprint(8L), fingerprint(9L));
+    }
+
+    private static MutantEntity entity(long seed, boolean mutant) {
+        return MutantEntity.builder()
+                .genomeHash(fingerprint(seed))
+                .matrixSnapshot(PackedGenome.encode(ROWS))
+                .mutant(mutant)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static GenomeFingerprint fingerprint(long seed) {
+        return new GenomeFingerprint(seed, ~seed);
+    }
+}
@@ -0,0 +1,209 @@
+package com.franciscovelasco.mutantdetector.repository;
+
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedMutantRegistryTest {
+
+    private static final List<String> ROWS = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+    @TempDir
+    Path directory;
+
+    private final List<MappedMutantRegistry> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeAll() throws InterruptedException {
+        for (MappedMutantRegistry registry : opened) {
+            registry.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Resuelve veredictos y totales desde el índice mapeado")
+    void findVerdict_shouldReadTheIndex() throws IOException {
+        MappedMutantRegistry registry = open();
+        registry.saveAll(List.of(entity(1L, true), entity(2L, false)));
+
+        assertThat(registry.findVerdictByGenomeHash(fingerprint(1L))).contains(true);
+        assertThat(registry.findVerdictByGenomeHash(fingerprint(2L))).contains(false);
+        assertThat(registry.findVerdictByGenomeHash(fingerprint(3L))).isEmpty();
+        assertThat(registry.findVerdictsByGenomeHashIn(List.of(fingerprint(1L), fingerprint(3L))))
+                .containsExactly(new StoredVerdict(fingerprint(1L), true));
+        assertThat(registry.countByMutantTrue()).isEqualTo(1);
+        assertThat(registry.countByMutantFalse()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("La lectura de auditoría recupera snapshot y fecha desde el log")
+    void findByGenomeHash_shouldRestoreTheRecord() throws IOException {
+        MappedMutantRegistry registry = open();
+        MutantEntity saved = registry.save(entity(4L, true));
+
+        MutantEntity stored = registry.findByGenomeHash(fingerprint(4L)).orElseThrow();
+
+        assertThat(stored.getId()).isEqualTo(saved.getId());
+        assertThat(stored.getMatrixSnapshot().toRows()).isEqualTo(ROWS);
+        assertThat(stored.getCreatedAt()).isEqualTo(saved.getCreatedAt());
+        assertThat(stored.isMutant()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un duplicado rechaza el lote completo sin escribir ninguna fila")
+    void saveAll_shouldRejectDuplicatesAtomically() throws IOException {
+        MappedMutantRegistry registry = open();
+        registry.save(entity(5L, true));
+
+        assertThrows(DataIntegrityViolationException.class, () -> registry.save(entity(5L, false)));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> registry.saveAll(List.of(entity(6L, true), entity(5L, true))));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> registry.saveAll(List.of(entity(7L, true), entity(7L, true))));
+        assertThat(registry.findVerdictByGenomeHash(fingerprint(6L))).isEmpty();
+        assertThat(registry.findVerdictByGenomeHash(fingerprint(7L))).isEmpty();
+        assertThat(registry.countByMutantTrue()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Los genomas sobreviven al reinicio, también tras un cierre abrupto")
+    void open_shouldRecoverAfterRestart() throws IOException, InterruptedException {
+        MappedMutantRegistry first = open();
+        first.saveAll(List.of(entity(1L, true), entity(2L, false)));
+        first.close();
+        opened.remove(first);
+
+        MappedMutantRegistry second = open();
+        assertThat(second.findVerdictByGenomeHash(fingerprint(1L))).contains(true);
+        second.save(entity(3L, true));
+        // Sin close(): el índice queda marcado sucio y sus totales se recalculan al abrir.
+        opened.remove(second);
+
+        MappedMutantRegistry third = open();
+        assertThat(third.findVerdictByGenomeHash(fingerprint(3L))).contains(true);
+        assertThat(third.countByMutantTrue()).isEqualTo(2);
+        assertThat(third.countByMutantFalse()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Tras una caída, un índice que apunta a un registro que no llegó a disco se reconstruye desde el log")
+    void open_shouldRebuildIndexPointingAtLostRecord() throws IOException {
+        MappedMutantRegistry first = open();
+        first.save(entity(1L, true));
+        MutantEntity lost = first.save(entity(2L, false));
+        first.save(entity(3L, true));
+        // Lo que deja una caída del sistema con la página del índice en disco y la del registro no: largo en cero.
+        try (FileChannel segment = FileChannel.open(directory.resolve("segment-000000.log"), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.allocate(Integer.BYTES), lost.getId());
+        }
+        opened.remove(first);
+
+        MappedMutantRegistry second = open();
+
+        assertThat(second.findByGenomeHash(fingerprint(1L))).isPresent();
+        // El log se corta en el registro perdido: lo que venía después tampoco se puede garantizar.
+        assertThat(second.findByGenomeHash(fingerprint(2L))).isEmpty();
+        assertThat(second.findVerdictByGenomeHash(fingerprint(3L))).isEmpty();
+        assertThat(second.countByMutantTrue() + second.countByMutantFalse()).isEqualTo(1);
+        second.save(entity(2L, false));
+        assertThat(second.findByGenomeHash(fingerprint(2L)).orElseThrow().isMutant()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sin índice se reconstruye desde el log, rotando segmentos y creciendo la tabla")
+    void open_shouldRebuildIndexFromSegments() throws IOException, InterruptedException {
+        MappedMutantRegistry first = open();
+        List<MutantEntity> batch = new ArrayList<>();
+        for (long seed = 0; seed < 500; seed++) {
+            batch.add(entity(seed, seed % 3 == 0));
+        }
+        first.saveAll(batch);
+        first.close();
+        opened.remove(first);
+        Files.delete(directory.resolve("verdicts.idx"));
+
+        MappedMutantRegistry second = open();
+
+        assertThat(Files.exists(directory.resolve("segment-000001.log"))).isTrue();
+        assertThat(second.countByMutantTrue() + second.countByMutantFalse()).isEqualTo(500);
+        assertThat(second.countByMutantTrue()).isEqualTo(167);
+        for (long seed = 0; seed < 500; seed++) {
+            assertThat(second.findVerdictByGenomeHash(fingerprint(seed))).contains(seed % 3 == 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Recorre fecha y veredicto de todos los segmentos desde un instante")
+    void forEachVerdictSince_shouldWalkEverySegment() throws IOException {
+        MappedMutantRegistry registry = open();
+        List<MutantEntity> batch = new ArrayList<>();
+        for (long seed = 0; seed < 200; seed++) {
+            batch.add(entity(seed, seed % 2 == 0));
+        }
+        registry.saveAll(batch);
+        List<TimedVerdict> visited = new ArrayList<>();
+
+        registry.forEachVerdictSince(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(150), visited::add);
+
+        assertThat(visited).hasSize(50);
+        assertThat(visited.get(0)).isEqualTo(new TimedVerdict(LocalDateTime.of(2024, 1, 1, 0, 2, 30), true));
+    }
+
+    @Test
+    @DisplayName("Recorre las huellas de todos los segmentos en orden de escritura")
+    void forEachGenomeHash_shouldWalkEverySegment() throws IOException {
+        MappedMutantRegistry registry = open();
+        List<MutantEntity> batch = new ArrayList<>();
+        for (long seed = 0; seed < 200; seed++) {
+            batch.add(entity(seed, true));
+        }
+        registry.saveAll(batch);
+        List<GenomeFingerprint> visited = new ArrayList<>();
+
+        registry.forEachGenomeHash(visited::add);
+
+        assertThat(visited).hasSize(200).startsWith(fingerprint(0L)).endsWith(fingerprint(199L));
+    }
+
+    // Segmentos de 4 KiB y 16 ranuras para que los tests crucen la rotación y el crecimiento del índice.
+    private MappedMutantRegistry open() throws IOException {
+        MappedMutantRegistry registry = new MappedMutantRegistry(directory, 4096, 16, Duration.ofMinutes(1));
+        registry.open();
+        opened.add(registry);
+        return registry;
+    }
+
+    private static MutantEntity entity(long seed, boolean mutant) {
+        return MutantEntity.builder()
+                .genomeHash(fingerprint(seed))
+                .matrixSnapshot(PackedGenome.encode(ROWS))
+                .mutant(mutant)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(seed))
+                .build();
+    }
+
+    private static GenomeFingerprint fingerprint(long seed) {
+        // El índice pliega ambas mitades para elegir la ranura: huellas mezcladas como las de Murmur3.
+        long mixed = seed * 0x9E3779B97F4A7C15L;
+        return new GenomeFingerprint(mixed, Long.rotateLeft(mixed, 31) ^ seed);
+    }
+}
@@ -1,23 +1,41 @@
 package com.franciscovelasco.mutantdetector.service;
 
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
 import com.franciscovelasco.mutantdetector.entity.MutantEntity;
 import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.fingerprint.Murmur3Fingerprinter;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
 import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,41 +45,146 @@ class DnaAnalyzerServiceTest {
     @Mock
     private MutantRegistry mutantRegistry;
 
-    @InjectMocks
+    @Mock
+    private AuditWriteBehind auditWriteBehind;
+
+    private SimpleMeterRegistry meterRegistry;
     private DnaAnalyzerService dnaAnalyzerService;
 
+    @BeforeEach
+    void setUp() {
+        // Filtro deshabilitado: estos tests ejercitan la consulta al registro en cada genoma nuevo.
+        dnaAnalyzerService = service(new GenomeBloomFilter(mutantRegistry, false, 1000, 0.01));
+        // Mockito devuelve false para Boolean: sin esto cada genoma parecería pendiente como humano.
+        lenient().when(auditWriteBehind.pendingVerdict(any(GenomeFingerprint.class))).thenReturn(null);
+    }
+
     @Test
     @DisplayName("Detecta mutantes y persiste el resultado cuando no existe cache")
     void inspectGenome_shouldReturnTrueForMutant() {
-        when(mutantRegistry.findByGenomeHash(anyString())).thenReturn(Optional.empty());
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenReturn(Optional.empty());
 
         boolean result = dnaAnalyzerService.inspectGenome(mutantDna());
 
         assertThat(result).isTrue();
-        verify(mutantRegistry).save(any(MutantEntity.class));
+        verify(auditWriteBehind).submit(any(MutantEntity.class));
     }
 
     @Test
     @DisplayName("Devuelve humano cuando no se alcanzan dos secuencias")
     void inspectGenome_shouldReturnFalseForHuman() {
-        when(mutantRegistry.findByGenomeHash(anyString())).thenReturn(Optional.empty());
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenReturn(Optional.empty());
 
         boolean result = dnaAnalyzerService.inspectGenome(humanDna());
 
         assertThat(result).isFalse();
-        verify(mutantRegistry).save(any(MutantEntity.class));
+        verify(auditWriteBehind).submit(any(MutantEntity.class));
     }
 
     @Test
     @DisplayName("Omite procesamiento cuando la secuencia ya fue calculada")
     void inspectGenome_shouldUseCacheWhenAvailable() {
-        when(mutantRegistry.findByGenomeHash(anyString()))
-                .thenReturn(Optional.of(MutantEntity.builder().mutant(true).build()));
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenReturn(Optional.of(true));
 
         boolean result = dnaAnalyzerService.inspectGenome(mutantDna());
 
         assertThat(result).isTrue();
-        verify(mutantRegistry, never()).save(any());
+        verify(auditWriteBehind, never()).submit(any());
+    }
+
+    @Test
+    @DisplayName("Un genoma repetido se resuelve desde la caché sin consultar el registro")
+    void inspectGenome_shouldSkipRegistryOnCacheHit() {
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenReturn(Optional.empty());
+        dnaAnalyzerService.inspectGenome(mutantDna());
+
+        boolean result = dnaAnalyzerService.inspectGenome(mutantDna());
+
+        assertThat(result).isTrue();
+        verify(mutantRegistry, times(1)).findVerdictByGenomeHash(any(GenomeFingerprint.class));
+        verify(auditWriteBehind, times(1)).submit(any(MutantEntity.class));
+    }
+
+    @Test
+    @DisplayName("Un genoma todavía en la cola de escritura no vuelve a consultarse ni a encolarse")
+    void inspectGenome_shouldResolvePendingWrites() {
+        when(auditWriteBehind.pendingVerdict(any(GenomeFingerprint.class))).thenReturn(true);
+
+        boolean result = dnaAnalyzerService.inspectGenome(mutantDna());
+
+        assertThat(result).isTrue();
+        verify(mutantRegistry, never()).findVerdictByGenomeHash(any());
+        verify(auditWriteBehind, never()).submit(any());
+    }
+
+    @Test
+    @DisplayName("Mide cada etapa y cuenta veredictos y duplicados")
+    void inspectGenome_shouldRecordStageMetrics() {
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenReturn(Optional.empty());
+
+        dnaAnalyzerService.inspectGenome(mutantDna());
+        dnaAnalyzerService.inspectGenome(mutantDna());
+
+        assertThat(meterRegistry.get("genome.verdicts").tag("result", "mutant").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("genome.duplicates").tag("source", "cache").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("genome.analysis.stage").tag("stage", "validation").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("genome.analysis.stage").tag("stage", "persistence").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("genome.detection").tag("size", "4-8").tag("exit", "diagonal").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Requests simultáneos con el mismo genoma comparten una consulta, una detección y una inserción")
+    void inspectGenome_shouldCoalesceConcurrentIdenticalGenomes() throws Exception {
+        CountDownLatch leaderInLookup = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenAnswer(invocation -> {
+            leaderInLookup.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> verdicts = new ArrayList<>();
+            verdicts.add(executor.submit(() -> dnaAnalyzerService.inspectGenome(mutantDna())));
+            assertThat(leaderInLookup.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int follower = 0; follower < 3; follower++) {
+                verdicts.add(executor.submit(() -> dnaAnalyzerService.inspectGenome(mutantDna())));
+            }
+            Counter joined = meterRegistry.get("genome.duplicates").tag("source", "in_flight").counter();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (joined.count() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Boolean> verdict : verdicts) {
+                assertThat(verdict.get(5, TimeUnit.SECONDS)).isTrue();
+            }
+            assertThat(joined.count()).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(mutantRegistry, times(1)).findVerdictByGenomeHash(any(GenomeFingerprint.class));
+        verify(auditWriteBehind, times(1)).submit(any(MutantEntity.class));
+    }
+
+    @Test
+    @DisplayName("Con el filtro de Bloom un genoma nunca visto no consulta el registro")
+    void inspectGenome_shouldSkipRegistryWhenFilterRulesOutTheGenome() {
+        GenomeBloomFilter genomeBloomFilter = new GenomeBloomFilter(mutantRegistry, true, 1000, 0.01);
+        dnaAnalyzerService = service(genomeBloomFilter);
+        genomeBloomFilter.put(new GenomeScanner(new SwarSequenceDetector(), new Murmur3Fingerprinter())
+                .scan(humanDna()).genomeHash());
+        when(mutantRegistry.findVerdictByGenomeHash(any(GenomeFingerprint.class))).thenReturn(Optional.of(false));
+
+        assertThat(dnaAnalyzerService.inspectGenome(mutantDna())).isTrue();
+        assertThat(dnaAnalyzerService.inspectGenome(humanDna())).isFalse();
+
+        verify(mutantRegistry, times(1)).findVerdictByGenomeHash(any(GenomeFingerprint.class));
+        verify(auditWriteBehind, times(1)).submit(any(MutantEntity.class));
+        assertThat(meterRegistry.get("genome.bloom.lookups").tag("outcome", "skipped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("genome.bloom.lookups").tag("outcome", "found").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -70,7 +193,15 @@ class DnaAnalyzerServiceTest {
         List<String> invalidMatrix = List.of("ATGC", "CAGT", "TTAT");
 
         assertThrows(GenomeFormatException.class, () -> dnaAnalyzerService.inspectGenome(invalidMatrix));
-        verify(mutantRegistry, never()).save(any());
+        verify(auditWriteBehind, never()).submit(any());
+    }
+
+    private DnaAnalyzerService service(GenomeBloomFilter genomeBloomFilter) {
+        SequenceDetector sequenceDetector = new SwarSequenceDetector();
+        meterRegistry = new SimpleMeterRegistry();
+        return new DnaAnalyzerService(mutantRegistry, sequenceDetector,
+                new GenomeScanner(sequenceDetector, new Murmur3Fingerprinter()), new VerdictCache(100, Duration.ofMinutes(5)),
+                genomeBloomFilter, auditWriteBehind, new AnalysisMetrics(meterRegistry), new VerdictFlights());
     }
 
     private List<String> mutantDna() {
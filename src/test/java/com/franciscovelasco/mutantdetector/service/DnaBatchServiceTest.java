@@ -0,0 +1,156 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.detection.SequenceDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.dto.BatchVerdictPayload;
+import com.franciscovelasco.mutantdetector.dto.GenomeInput;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.fingerprint.Murmur3Fingerprinter;
+import com.franciscovelasco.mutantdetector.metrics.AnalysisMetrics;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import com.franciscovelasco.mutantdetector.repository.StoredVerdict;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DnaBatchServiceTest {
+
+    private static final List<String> MUTANT = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+    private static final List<String> HUMAN = List.of("ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG");
+
+    @Mock
+    private MutantRegistry mutantRegistry;
+
+    @Mock
+    private AuditWriteBehind auditWriteBehind;
+
+    private final VerdictFlights verdictFlights = new VerdictFlights();
+    private GenomeScanner genomeScanner;
+    private DnaBatchService dnaBatchService;
+
+    @BeforeEach
+    void setUp() {
+        SequenceDetector sequenceDetector = new SwarSequenceDetector();
+        genomeScanner = new GenomeScanner(sequenceDetector, new Murmur3Fingerprinter());
+        dnaBatchService = new DnaBatchService(mutantRegistry, sequenceDetector, genomeScanner,
+                new VerdictCache(100, Duration.ofMinutes(5)), new GenomeBloomFilter(mutantRegistry, false, 1000, 0.01),
+                auditWriteBehind, new AnalysisMetrics(new SimpleMeterRegistry()), verdictFlights);
+        // Mockito devuelve false para Boolean: sin esto cada genoma parecería pendiente como humano.
+        lenient().when(auditWriteBehind.pendingVerdict(any())).thenReturn(null);
+    }
+
+    @Test
+    @DisplayName("Deduplica el lote, consulta la base una vez e inserta solo los genomas nuevos")
+    @SuppressWarnings("unchecked")
+    void inspectBatch_shouldDedupeAndBatchDatabaseAccess() {
+        StoredVerdict stored = new StoredVerdict(genomeScanner.scan(HUMAN).genomeHash(), false);
+        when(mutantRegistry.findVerdictsByGenomeHashIn(anyCollection())).thenReturn(List.of(stored));
+        List<BatchVerdictPayload> results = new ArrayList<>();
+
+        dnaBatchService.inspectBatch(List.of(new GenomeInput(MUTANT), new GenomeInput(HUMAN),
+                new GenomeInput(MUTANT)), results::add);
+
+        assertThat(results).extracting(BatchVerdictPayload::index).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(results).filteredOn(result -> result.index() != 1)
+                .extracting(BatchVerdictPayload::mutant).containsOnly(true);
+        assertThat(results).filteredOn(result -> result.index() == 1)
+                .extracting(BatchVerdictPayload::mutant).containsExactly(false);
+        verify(mutantRegistry).findVerdictsByGenomeHashIn(argThat(hashes -> hashes.size() == 2));
+        ArgumentCaptor<List<MutantEntity>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(auditWriteBehind).persistAll(inserted.capture());
+        assertThat(inserted.getValue()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("La consulta IN solo lleva las huellas que el filtro de Bloom no descarta")
+    void inspectBatch_shouldQueryOnlyFilterCandidates() {
+        SequenceDetector sequenceDetector = new SwarSequenceDetector();
+        GenomeBloomFilter genomeBloomFilter = new GenomeBloomFilter(mutantRegistry, true, 1000, 0.01);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dnaBatchService = new DnaBatchService(mutantRegistry, sequenceDetector, genomeScanner,
+                new VerdictCache(100, Duration.ofMinutes(5)), genomeBloomFilter, auditWriteBehind,
+                new AnalysisMetrics(meterRegistry), verdictFlights);
+        GenomeFingerprint human = genomeScanner.scan(HUMAN).genomeHash();
+        genomeBloomFilter.put(human);
+        when(mutantRegistry.findVerdictsByGenomeHashIn(anyCollection()))
+                .thenReturn(List.of(new StoredVerdict(human, false)));
+        List<BatchVerdictPayload> results = new ArrayList<>();
+
+        dnaBatchService.inspectBatch(List.of(new GenomeInput(MUTANT), new GenomeInput(HUMAN)), results::add);
+
+        assertThat(results).hasSize(2);
+        verify(mutantRegistry).findVerdictsByGenomeHashIn(argThat(hashes -> hashes.size() == 1));
+        assertThat(genomeBloomFilter.mightContain(genomeScanner.scan(MUTANT).genomeHash())).isTrue();
+        assertThat(meterRegistry.get("genome.bloom.lookups").tag("outcome", "skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un genoma inválido produce un error en su posición sin frenar el lote")
+    void inspectBatch_shouldReportInvalidGenomes() {
+        List<BatchVerdictPayload> results = new ArrayList<>();
+
+        dnaBatchService.inspectBatch(List.of(new GenomeInput(List.of("ATXC", "CAGT", "TTAT", "AGAC"))), results::add);
+
+        assertThat(results).containsExactly(BatchVerdictPayload.rejected(0, "Solo se admiten caracteres A,T,C,G"));
+        verify(mutantRegistry, never()).findVerdictsByGenomeHashIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Valida cada genoma como POST /mutant/: sin recortar espacios ni aceptar minúsculas")
+    void inspectBatch_shouldRejectWhatTheSingleEndpointRejects() {
+        List<String> lowercase = MUTANT.stream().map(String::toLowerCase).toList();
+        List<String> padded = MUTANT.stream().map(row -> " " + row).toList();
+        List<BatchVerdictPayload> results = new ArrayList<>();
+
+        dnaBatchService.inspectBatch(List.of(new GenomeInput(lowercase), new GenomeInput(padded)), results::add);
+
+        assertThat(results).containsExactly(
+                BatchVerdictPayload.rejected(0, "Solo se admiten caracteres A,T,C,G"),
+                BatchVerdictPayload.rejected(1, "Solo se admiten caracteres A,T,C,G"));
+        assertThat(results).extracting(BatchVerdictPayload::status).containsOnly(400);
+        verify(auditWriteBehind, never()).persistAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Un genoma que otro request ya está analizando se espera en lugar de consultarse e insertarse de nuevo")
+    void inspectBatch_shouldJoinGenomeInFlight() {
+        GenomeFingerprint mutant = genomeScanner.scan(MUTANT).genomeHash();
+        CompletableFuture<Boolean> leader = new CompletableFuture<>();
+        assertThat(verdictFlights.join(mutant, leader)).isNull();
+        leader.complete(true);
+        List<BatchVerdictPayload> results = new ArrayList<>();
+
+        dnaBatchService.inspectBatch(List.of(new GenomeInput(MUTANT), new GenomeInput(MUTANT)), results::add);
+
+        assertThat(results).containsExactlyInAnyOrder(
+                BatchVerdictPayload.verdict(0, mutant.toHex(), true),
+                BatchVerdictPayload.verdict(1, mutant.toHex(), true));
+        verify(mutantRegistry, never()).findVerdictsByGenomeHashIn(anyCollection());
+        verify(auditWriteBehind, never()).persistAll(anyList());
+    }
+}
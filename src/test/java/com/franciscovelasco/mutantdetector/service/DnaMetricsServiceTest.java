@@ -1,7 +1,18 @@
 package com.franciscovelasco.mutantdetector.service;
 
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.cache.VerdictCache;
+import com.franciscovelasco.mutantdetector.dto.CacheStatsPayload;
 import com.franciscovelasco.mutantdetector.dto.StatsPayload;
-import com.franciscovelasco.mutantdetector.repository.MutantRegistry;
+import com.franciscovelasco.mutantdetector.dto.TimeBucketPayload;
+import com.franciscovelasco.mutantdetector.dto.TimeseriesPayload;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Bucket;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline.Resolution;
+import com.franciscovelasco.mutantdetector.repository.AuditWriteBehind;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +20,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -16,7 +30,22 @@ import static org.mockito.Mockito.when;
 class DnaMetricsServiceTest {
 
     @Mock
-    private MutantRegistry mutantRegistry;
+    private VerdictCounters verdictCounters;
+
+    @Mock
+    private VerdictTimeline verdictTimeline;
+
+    @Mock
+    private VerdictCache verdictCache;
+
+    @Mock
+    private GenomeBloomFilter genomeBloomFilter;
+
+    @Mock
+    private AuditWriteBehind auditWriteBehind;
+
+    @Mock
+    private MeterRegistry meterRegistry;
 
     @InjectMocks
     private DnaMetricsService dnaMetricsService;
@@ -24,8 +53,8 @@ class DnaMetricsServiceTest {
     @Test
     @DisplayName("Debe calcular estadísticas correctamente cuando hay mutantes y humanos")
     void fetchStats_shouldReturnCorrectStats_WhenMutantsAndHumansExist() {
-        when(mutantRegistry.countByMutantTrue()).thenReturn(40L);
-        when(mutantRegistry.countByMutantFalse()).thenReturn(100L);
+        when(verdictCounters.mutants()).thenReturn(40L);
+        when(verdictCounters.humans()).thenReturn(100L);
 
         StatsPayload stats = dnaMetricsService.fetchStats();
 
@@ -37,8 +66,8 @@ class DnaMetricsServiceTest {
     @Test
     @DisplayName("Debe calcular ratio 0 cuando no hay humanos")
     void fetchStats_shouldReturnZeroRatio_WhenNoHumans() {
-        when(mutantRegistry.countByMutantTrue()).thenReturn(10L);
-        when(mutantRegistry.countByMutantFalse()).thenReturn(0L);
+        when(verdictCounters.mutants()).thenReturn(10L);
+        when(verdictCounters.humans()).thenReturn(0L);
 
         StatsPayload stats = dnaMetricsService.fetchStats();
 
@@ -50,8 +79,8 @@ class DnaMetricsServiceTest {
     @Test
     @DisplayName("Debe calcular ratio correctamente cuando no hay mutantes")
     void fetchStats_shouldReturnZeroRatio_WhenNoMutants() {
-        when(mutantRegistry.countByMutantTrue()).thenReturn(0L);
-        when(mutantRegistry.countByMutantFalse()).thenReturn(50L);
+        when(verdictCounters.mutants()).thenReturn(0L);
+        when(verdictCounters.humans()).thenReturn(50L);
 
         StatsPayload stats = dnaMetricsService.fetchStats();
 
@@ -63,8 +92,8 @@ class DnaMetricsServiceTest {
     @Test
     @DisplayName("Debe calcular ratio 1.0 cuando hay igual cantidad de mutantes y humanos")
     void fetchStats_shouldReturnRatioOne_WhenEqualCounts() {
-        when(mutantRegistry.countByMutantTrue()).thenReturn(25L);
-        when(mutantRegistry.countByMutantFalse()).thenReturn(25L);
+        when(verdictCounters.mutants()).thenReturn(25L);
+        when(verdictCounters.humans()).thenReturn(25L);
 
         StatsPayload stats = dnaMetricsService.fetchStats();
 
@@ -76,8 +105,8 @@ class DnaMetricsServiceTest {
     @Test
     @DisplayName("Debe retornar 0 en todos los campos cuando no hay datos")
     void fetchStats_shouldReturnZeros_WhenNoData() {
-        when(mutantRegistry.countByMutantTrue()).thenReturn(0L);
-        when(mutantRegistry.countByMutantFalse()).thenReturn(0L);
+        when(verdictCounters.mutants()).thenReturn(0L);
+        when(verdictCounters.humans()).thenReturn(0L);
 
         StatsPayload stats = dnaMetricsService.fetchStats();
 
@@ -89,8 +118,8 @@ class DnaMetricsServiceTest {
     @Test
     @DisplayName("Debe calcular ratio correctamente con números grandes")
     void fetchStats_shouldCalculateRatio_WithLargeNumbers() {
-        when(mutantRegistry.countByMutantTrue()).thenReturn(1000L);
-        when(mutantRegistry.countByMutantFalse()).thenReturn(5000L);
+        when(verdictCounters.mutants()).thenReturn(1000L);
+        when(verdictCounters.humans()).thenReturn(5000L);
 
         StatsPayload stats = dnaMetricsService.fetchStats();
 
@@ -98,5 +127,34 @@ class DnaMetricsServiceTest {
         assertThat(stats.humanCount()).isEqualTo(5000);
         assertThat(stats.ratio()).isEqualTo(0.2);
     }
-}
 
+    @Test
+    @DisplayName("Debe exponer aciertos, fallos y desalojos de la caché")
+    void fetchCacheStats_shouldExposeCounters() {
+        when(verdictCache.stats()).thenReturn(CacheStats.of(30, 10, 0, 0, 0, 4, 0));
+        when(verdictCache.size()).thenReturn(12L);
+
+        CacheStatsPayload stats = dnaMetricsService.fetchCacheStats();
+
+        assertThat(stats.hits()).isEqualTo(30);
+        assertThat(stats.misses()).isEqualTo(10);
+        assertThat(stats.evictions()).isEqualTo(4);
+        assertThat(stats.hitRate()).isEqualTo(0.75);
+        assertThat(stats.size()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("La serie temporal se arma con las cubetas ya agregadas y el mismo ratio que /stats")
+    void fetchTimeseries_shouldMapBuckets() {
+        LocalDateTime hour = LocalDateTime.of(2024, 3, 10, 15, 0);
+        when(verdictTimeline.lastBuckets(Resolution.HOUR, 2)).thenReturn(List.of(
+                new Bucket(hour.minusHours(1), 0, 0), new Bucket(hour, 3, 6)));
+
+        TimeseriesPayload series = dnaMetricsService.fetchTimeseries(Resolution.HOUR, 2);
+
+        assertThat(series.resolution()).isEqualTo("hour");
+        assertThat(series.buckets()).containsExactly(
+                new TimeBucketPayload(hour.minusHours(1), 0, 0, 0.0),
+                new TimeBucketPayload(hour, 3, 6, 0.5));
+    }
+}
@@ -0,0 +1,177 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.cache.GenomeBloomFilter;
+import com.franciscovelasco.mutantdetector.detection.PackedGenome;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.entity.MutantEntity;
+import com.franciscovelasco.mutantdetector.fingerprint.CanonicalFingerprinter;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.fingerprint.Murmur3Fingerprinter;
+import com.franciscovelasco.mutantdetector.metrics.VerdictCounters;
+import com.franciscovelasco.mutantdetector.metrics.VerdictTimeline;
+import com.franciscovelasco.mutantdetector.repository.AuditJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+class FingerprintBackfillServiceTest {
+
+    private static final List<String> ROWS = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+    private final GenomeScanner plainScanner = new GenomeScanner(new SwarSequenceDetector(), new Murmur3Fingerprinter());
+    private final GenomeScanner canonicalScanner = new GenomeScanner(new SwarSequenceDetector(),
+            new CanonicalFingerprinter(new Murmur3Fingerprinter()));
+    private final VerdictCounters verdictCounters = mock(VerdictCounters.class);
+    private final VerdictTimeline verdictTimeline = mock(VerdictTimeline.class);
+
+    @Autowired
+    private AuditJpaRepository auditJpaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private GenomeFingerprint canonicalHash;
+    private List<String> canonicalRows;
+    private List<String> rotatedRows;
+
+    @BeforeEach
+    void pickOrientations() {
+        canonicalHash = canonicalScanner.scan(ROWS).genomeHash();
+        // Con la huella directa, la orientación canónica ya tiene la huella nueva y cualquier otra la cambia.
+        for (List<String> orientation : orientations(ROWS)) {
+            boolean canonical = plainScanner.scan(orientation).genomeHash().equals(canonicalHash);
+            if (canonical && canonicalRows == null) {
+                canonicalRows = orientation;
+            } else if (!canonical && rotatedRows == null) {
+                rotatedRows = orientation;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Con la huella canónica, la rotación más antigua se queda y la orientación posterior se borra")
+    void run_shouldKeepOlderRotationWhenNewerHoldsTheCanonicalHash() {
+        MutantEntity older = store(rotatedRows);
+        MutantEntity newer = store(canonicalRows);
+
+        backfill().run();
+
+        assertMerged(older, newer);
+    }
+
+    @Test
+    @DisplayName("Con la huella canónica, una rotación posterior a la orientación canónica se borra")
+    void run_shouldDropNewerRotationOfStoredGenome() {
+        MutantEntity older = store(canonicalRows);
+        MutantEntity newer = store(rotatedRows);
+
+        backfill().run();
+
+        assertMerged(older, newer);
+    }
+
+    private void assertMerged(MutantEntity older, MutantEntity newer) {
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(auditJpaRepository.findById(newer.getId())).isEmpty();
+        assertThat(auditJpaRepository.findById(older.getId()).orElseThrow().getGenomeHash()).isEqualTo(canonicalHash);
+        assertThat(auditJpaRepository.findByGenomeHash(canonicalHash).orElseThrow().getId()).isEqualTo(older.getId());
+        verify(verdictCounters).discard(newer.isMutant());
+        verify(verdictTimeline).discard(any(), eq(newer.isMutant()));
+    }
+
+    @Test
+    @DisplayName("Completa la huella de las filas heredadas que todavía no la tienen")
+    void run_shouldFillMissingFingerprintsOfLegacyRows() {
+        MutantEntity legacy = auditJpaRepository.saveAndFlush(MutantEntity.builder()
+                .matrixSnapshot(PackedGenome.encode(ROWS))
+                .mutant(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.clear();
+
+        backfill("missing").run();
+
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(auditJpaRepository.findById(legacy.getId()).orElseThrow().getGenomeHash()).isEqualTo(canonicalHash);
+    }
+
+    @Test
+    @DisplayName("Migra antes de que arranque el servidor web, que es el que habilita el readiness")
+    void phase_shouldPrecedeWebServer() {
+        FingerprintBackfillService backfill = backfill();
+
+        assertThat(backfill.getPhase()).isGreaterThan(SnapshotBackfillService.PHASE).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+        assertThat(backfill.isAutoStartup()).isTrue();
+    }
+
+    private FingerprintBackfillService backfill() {
+        return backfill("all");
+    }
+
+    private FingerprintBackfillService backfill(String mode) {
+        return new FingerprintBackfillService(auditJpaRepository, canonicalScanner, mock(GenomeBloomFilter.class),
+                verdictCounters, verdictTimeline, new TransactionTemplate(transactionManager), mode);
+    }
+
+    // Filas previas a activar la huella canónica: guardadas con la huella directa de su orientación.
+    private MutantEntity store(List<String> rows) {
+        ScannedGenome scanned = plainScanner.scan(rows);
+        MutantEntity entity = auditJpaRepository.saveAndFlush(MutantEntity.builder()
+                .genomeHash(scanned.genomeHash())
+                .matrixSnapshot(PackedGenome.encode(rows))
+                .mutant(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.clear();
+        return entity;
+    }
+
+    private static List<List<String>> orientations(List<String> rows) {
+        List<List<String>> orientations = new ArrayList<>();
+        List<String> mirrored = rows.stream().map(row -> new StringBuilder(row).reverse().toString()).toList();
+        for (List<String> start : List.of(rows, mirrored)) {
+            List<String> current = start;
+            for (int turn = 0; turn < 4; turn++) {
+                orientations.add(current);
+                current = rotate(current);
+            }
+        }
+        return orientations;
+    }
+
+    // Giro horario: la fila r pasa a ser la columna N - 1 - r.
+    private static List<String> rotate(List<String> rows) {
+        int size = rows.size();
+        List<String> rotated = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            char[] line = new char[size];
+            for (int col = 0; col < size; col++) {
+                line[col] = rows.get(size - 1 - col).charAt(row);
+            }
+            rotated.add(new String(line));
+        }
+        return rotated;
+    }
+}
@@ -0,0 +1,202 @@
+package com.franciscovelasco.mutantdetector.service;
+
+import com.franciscovelasco.mutantdetector.config.BinaryGenomeConverter;
+import com.franciscovelasco.mutantdetector.detection.PackedScanDetector;
+import com.franciscovelasco.mutantdetector.detection.SwarSequenceDetector;
+import com.franciscovelasco.mutantdetector.exception.GenomeFormatException;
+import com.franciscovelasco.mutantdetector.fingerprint.CanonicalFingerprinter;
+import com.franciscovelasco.mutantdetector.fingerprint.GenomeFingerprint;
+import com.franciscovelasco.mutantdetector.fingerprint.Murmur3Fingerprinter;
+import com.franciscovelasco.mutantdetector.fingerprint.Sha256Fingerprinter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GenomeScannerTest {
+
+    private final GenomeScanner genomeScanner = new GenomeScanner(new SwarSequenceDetector(), new Murmur3Fingerprinter());
+
+    @Test
+    @DisplayName("La huella distingue genomas que difieren en una sola base")
+    void scan_shouldFingerprintEveryBase() {
+        ScannedGenome original = genomeScanner.scan(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"));
+        ScannedGenome changed = genomeScanner.scan(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTA"));
+
+        assertThat(original.genomeHash()).isNotEqualTo(changed.genomeHash());
+        assertThat(original.genomeHash().toHex()).hasSize(2 * GenomeFingerprint.BYTES);
+    }
+
+    @Test
+    @DisplayName("SHA-256 sigue disponible como estrategia alternativa")
+    void scan_shouldSupportSha256Strategy() {
+        GenomeScanner shaScanner = new GenomeScanner(new SwarSequenceDetector(), new Sha256Fingerprinter());
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+        GenomeFingerprint sha = shaScanner.scan(rows).genomeHash();
+
+        assertThat(sha).isEqualTo(shaScanner.scan(rows).genomeHash());
+        assertThat(sha).isNotEqualTo(genomeScanner.scan(rows).genomeHash());
+        assertThat(GenomeFingerprint.fromBytes(sha.toBytes())).isEqualTo(sha);
+    }
+
+    @Test
+    @DisplayName("La huella canónica es la misma para las 8 rotaciones y reflejos, con el mismo veredicto")
+    void scan_shouldShareCanonicalFingerprintAcrossSymmetries() {
+        GenomeScanner canonicalScanner = new GenomeScanner(new SwarSequenceDetector(),
+                new CanonicalFingerprinter(new Murmur3Fingerprinter()));
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        ScannedGenome original = canonicalScanner.scan(rows);
+
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            ScannedGenome transformed = canonicalScanner.scan(transform(rows, symmetry));
+
+            assertThat(transformed.genomeHash()).isEqualTo(original.genomeHash());
+            assertThat(transformed.verdict()).isEqualTo(original.verdict());
+        }
+        assertThat(genomeScanner.scan(transform(rows, 1)).genomeHash())
+                .isNotEqualTo(genomeScanner.scan(rows).genomeHash());
+        assertThat(canonicalScanner.scan(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTA")).genomeHash())
+                .isNotEqualTo(original.genomeHash());
+    }
+
+    @Test
+    @DisplayName("Normaliza espacios y minúsculas en la misma pasada")
+    void scan_shouldNormalizeRows() {
+        ScannedGenome raw = genomeScanner.scan(List.of(" atgcga ", "cagtgc", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"));
+        ScannedGenome clean = genomeScanner.scan(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"));
+
+        assertThat(raw.genomeHash()).isEqualTo(clean.genomeHash());
+        assertThat(raw.genome().toRows()).isEqualTo(clean.genome().toRows());
+    }
+
+    @Test
+    @DisplayName("Resuelve el veredicto durante la lectura cuando el motor es incremental")
+    void scan_shouldResolveVerdictInline() {
+        ScannedGenome mutant = genomeScanner.scan(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"));
+        ScannedGenome human = genomeScanner.scan(List.of("ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"));
+
+        assertThat(mutant.verdict()).isTrue();
+        assertThat(human.verdict()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deja el veredicto pendiente con motores que necesitan la matriz completa")
+    void scan_shouldDeferVerdictForWholeMatrixEngines() {
+        GenomeScanner scanner = new GenomeScanner(new PackedScanDetector(), new Murmur3Fingerprinter());
+
+        ScannedGenome scanned = scanner.scan(List.of("ATGC", "CAGT", "TTAT", "AGAC"));
+
+        assertThat(scanned.hasVerdict()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rechaza matrices pequeñas, no cuadradas o con símbolos inválidos")
+    void scan_shouldRejectInvalidInput() {
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.scan(List.of()));
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.scan(List.of("ATG", "CAG", "TTA")));
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.scan(List.of("ATGC", "CAGT", "TTAT")));
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.scan(List.of("ATXC", "CAGT", "TTAT", "AGAC")));
+    }
+
+    @Test
+    @DisplayName("Rechaza matrices más grandes que el máximo antes de reservar el genoma")
+    void scan_shouldRejectOversizedInputBeforeAllocating() {
+        GenomeScanner capped = new GenomeScanner(new SwarSequenceDetector(), new Murmur3Fingerprinter(), 8);
+        List<String> nine = new ArrayList<>();
+        for (int row = 0; row < 9; row++) {
+            nine.add("ACGTACGTA");
+        }
+
+        assertThrows(GenomeFormatException.class, () -> capped.scan(nine));
+        assertThrows(GenomeFormatException.class, () -> capped.assemble().acceptRow(nine.get(0)));
+        assertThrows(GenomeFormatException.class, () -> capped.assemble(9));
+        assertThat(capped.scan(nine.subList(0, 8).stream().map(row -> row.substring(0, 8)).toList()).genome().size())
+                .isEqualTo(8);
+        // Una sola fila de 100k bases reservaría ~2.5 GB con N fijado por ella.
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.assemble().acceptRow("A".repeat(100_000)));
+    }
+
+    @Test
+    @DisplayName("El armado fila por fila toma N de la primera fila y coincide con la lectura de la lista")
+    void assemble_shouldMatchListScan() {
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        char[] buffer = String.join("", rows).toCharArray();
+        GenomeAssembly assembly = genomeScanner.assemble();
+
+        for (int row = 0; row < rows.size(); row++) {
+            assembly.acceptRow(CharBuffer.wrap(buffer, row * 6, 6));
+        }
+        ScannedGenome streamed = assembly.finish();
+
+        ScannedGenome listed = genomeScanner.scan(rows);
+        assertThat(streamed.genomeHash()).isEqualTo(listed.genomeHash());
+        assertThat(streamed.verdict()).isEqualTo(listed.verdict());
+    }
+
+    @Test
+    @DisplayName("El armado rechaza en la fila culpable, sin esperar al resto, y no normaliza")
+    void assemble_shouldRejectEarlyAndStrictly() {
+        GenomeAssembly assembly = genomeScanner.assemble();
+        assembly.acceptRow("ATGC");
+
+        assertThrows(GenomeFormatException.class, () -> assembly.acceptRow("ATG"));
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.assemble().acceptRow("atgc"));
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.assemble().acceptRow("ATG"));
+        GenomeAssembly tooManyRows = genomeScanner.assemble();
+        List.of("ATGC", "CAGT", "TTAT", "AGAC").forEach(tooManyRows::acceptRow);
+        assertThrows(GenomeFormatException.class, () -> tooManyRows.acceptRow("ATGC"));
+        GenomeAssembly missingRows = genomeScanner.assemble();
+        missingRows.acceptRow("ATGC");
+        assertThrows(GenomeFormatException.class, missingRows::finish);
+    }
+
+    @Test
+    @DisplayName("Las filas empaquetadas llegan al mismo genoma y rechazan relleno distinto de cero")
+    void assemble_shouldAcceptPackedRows() {
+        List<String> rows = List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+        byte[] body = BinaryGenomeConverter.encode(rows);
+        GenomeAssembly assembly = genomeScanner.assemble(rows.size());
+
+        for (int row = 0; row < rows.size(); row++) {
+            assembly.acceptPackedRow(body, Integer.BYTES + row * 2);
+        }
+        ScannedGenome packed = assembly.finish();
+
+        ScannedGenome listed = genomeScanner.scan(rows);
+        assertThat(packed.genomeHash()).isEqualTo(listed.genomeHash());
+        assertThat(packed.genome().toRows()).isEqualTo(rows);
+        assertThat(packed.verdict()).isTrue();
+        byte[] dirty = {(byte) 0b1110_0100, (byte) 0b0100_0010};
+        assertThrows(GenomeFormatException.class, () -> genomeScanner.assemble(rows.size()).acceptPackedRow(dirty, 0));
+    }
+
+    // 0-3: rotaciones de 0, 90, 180 y 270 grados; 4-7: transpuesta, espejo de columnas, de filas y antitranspuesta.
+    private static List<String> transform(List<String> rows, int symmetry) {
+        int size = rows.size();
+        int last = size - 1;
+        List<String> transformed = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            StringBuilder line = new StringBuilder(size);
+            for (int col = 0; col < size; col++) {
+                line.append(switch (symmetry) {
+                    case 0 -> rows.get(row).charAt(col);
+                    case 1 -> rows.get(last - col).charAt(row);
+                    case 2 -> rows.get(last - row).charAt(last - col);
+                    case 3 -> rows.get(col).charAt(last - row);
+                    case 4 -> rows.get(col).charAt(row);
+                    case 5 -> rows.get(row).charAt(last - col);
+                    case 6 -> rows.get(last - row).charAt(col);
+                    default -> rows.get(last - col).charAt(last - row);
+                });
+            }
+            transformed.add(line.toString());
+        }
+        return transformed;
+    }
+}